@@ -0,0 +1,98 @@
+package com.example.ramazan.benchmark;
+
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.common.util.TextNormalizeUtil;
+import com.example.ramazan.location.dto.NearestCity;
+import com.example.ramazan.location.dto.ResolvedCity;
+import com.example.ramazan.location.service.CityIndex;
+import com.example.ramazan.location.service.CityResolverService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parametrlər ayrı state-lərdədir ki, koordinat benchmark-ı ad parametrləri üzrə, ad benchmark-ları
+ * isə koordinatlar üzrə təkrarlanmasın.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CityResolverBenchmark {
+
+    @State(Scope.Thread)
+    public static class Coords {
+        @Param({"38.45", "40.40", "41.63"})
+        public double latitude;
+
+        public final CityResolverService resolver = new CityResolverService(0.5);
+    }
+
+    @State(Scope.Thread)
+    public static class Names {
+        @Param({"Bakı", "Şəmkir", "  GƏNCƏ "})
+        public String cityName;
+
+        public final CityResolverService resolver = new CityResolverService(0.5);
+    }
+
+    // İndeksin şəhər sayı artanda necə davrandığını yoxlamaq üçün süni məntəqələr
+    @State(Scope.Benchmark)
+    public static class Synthetic {
+        @Param({"80", "10000", "100000"})
+        public int size;
+
+        public CityIndex index;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            List<AzerbaijanCities.City> cities = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                cities.add(new AzerbaijanCities.City("c" + i,
+                        38.4 + random.nextDouble() * 3.4,
+                        44.8 + random.nextDouble() * 5.1));
+            }
+            // Xana ölçüsü hər xanaya təxminən bir neçə məntəqə düşəcək qədər seçilir
+            index = CityIndex.of(cities, Math.max(0.01, Math.sqrt(3.4 * 5.1 / size) * 2));
+        }
+    }
+
+    @Benchmark
+    public ResolvedCity resolveCityByCoords(Coords state) {
+        return state.resolver.resolveCityByCoords(state.latitude, 48.5);
+    }
+
+    @Benchmark
+    public List<NearestCity> nearestCities(Coords state) {
+        return state.resolver.nearestCities(state.latitude, 48.5, 5);
+    }
+
+    @Benchmark
+    public List<NearestCity> syntheticNearest(Synthetic state) {
+        return state.index.nearest(40.40, 48.5, 5);
+    }
+
+    @Benchmark
+    public ResolvedCity resolveCityByName(Names state) {
+        return state.resolver.resolveCityByName(state.cityName);
+    }
+
+    @Benchmark
+    public List<ResolvedCity> suggest(Names state) {
+        return state.resolver.suggest(state.cityName.trim().substring(0, 2), 10);
+    }
+
+    @Benchmark
+    public String normalize(Names state) {
+        return TextNormalizeUtil.normalize(state.cityName);
+    }
+}
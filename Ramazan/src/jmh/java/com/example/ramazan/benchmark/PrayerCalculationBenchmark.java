@@ -0,0 +1,79 @@
+package com.example.ramazan.benchmark;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.calculation.engine.SolarEphemeris;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.calculation.service.PrayerTimeTiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servis səviyyəsi: DTO qurulması daxil olmaqla bir sorğunun, bir ayın və bütün şəhərlərin hesablanması.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrayerCalculationBenchmark {
+
+    @Param({"MWL", "Makkah", "Tehran"})
+    public String method;
+
+    @Param({"38.45", "40.40", "41.63"})
+    public double latitude;
+
+    @Param({"true", "false"})
+    public boolean tiles;
+
+    private ForkJoinPool pool;
+    private PrayerCalculationService service;
+    private LocalDate date;
+    private int request;
+
+    @Setup
+    public void setup() {
+        PrayerTime engine = new PrayerTime(new SolarEphemeris(2020, 2030));
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        date = LocalDate.of(2026, 3, 1);
+        PrayerTimeTiles prayerTimeTiles = new PrayerTimeTiles(engine, tiles, 0.1, 1.0, 0);
+        prayerTimeTiles.refresh(date);
+        service = new PrayerCalculationService(engine, pool, prayerTimeTiles);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public PrayerTimesDto calculate() {
+        // GPS sorğuları kimi hər dəfə bir az fərqli koordinat
+        double jitter = (request++ & 1023) * 1e-5;
+        if (tiles) {
+            return service.interpolate(date, latitude + jitter, 49.8671 + jitter, 4.0, method).orElseThrow();
+        }
+        return service.calculate(date, latitude + jitter, 49.8671 + jitter, 4.0, method);
+    }
+
+    @Benchmark
+    public List<PrayerTimesDto> calculateMonth() {
+        return service.calculateRange(date, date.plusDays(30), latitude, 49.8671, 4.0, method);
+    }
+
+    @Benchmark
+    public List<PrayerTimesDto> calculateAllCities() {
+        return service.calculateAllCities(date, 4.0, method);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.ramazan.benchmark;
+
+import com.example.ramazan.calculation.engine.MethodProfile;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.calculation.engine.SolarEphemeris;
+import com.example.ramazan.enums.CalculationMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mühərrikin özü: metod × en dairəsi. {@code getPrayerTimes} mətn map-ı qaytaran köhnə yol,
+ * {@code computeTimes} isə servislərin istifadə etdiyi massiv yoludur.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrayerTimeBenchmark {
+
+    @Param({"MWL", "ISNA", "Egypt", "Makkah", "Karachi", "Tehran", "CAUCASUS", "Jafari"})
+    public String method;
+
+    // Astara, Bakı, Zaqatala
+    @Param({"38.45", "40.40", "41.63"})
+    public double latitude;
+
+    @Param({"true", "false"})
+    public boolean ephemeris;
+
+    private PrayerTime engine;
+    private MethodProfile profile;
+    private LocalDate date;
+    private double[] times;
+
+    @Setup
+    public void setup() {
+        engine = ephemeris ? new PrayerTime(new SolarEphemeris(2020, 2030)) : new PrayerTime();
+        profile = MethodProfiles.get(CalculationMethod.valueOf(method));
+        date = LocalDate.of(2026, 3, 1);
+        times = new double[Prayer.COUNT];
+    }
+
+    @Benchmark
+    public Map<String, String> getPrayerTimes() {
+        return engine.getPrayerTimes(profile, date, latitude, 49.8671, 4.0);
+    }
+
+    @Benchmark
+    public double[] computeTimes() {
+        return engine.computeTimes(profile, date, latitude, 49.8671, 0, 4.0, times);
+    }
+}
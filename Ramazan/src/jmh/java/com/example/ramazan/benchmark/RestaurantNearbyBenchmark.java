@@ -0,0 +1,96 @@
+package com.example.ramazan.benchmark;
+
+import com.example.ramazan.model.RestaurantSummary;
+import com.example.ramazan.prayer.dto.RestaurantDto;
+import com.example.ramazan.prayer.mapper.RestaurantMapperImpl;
+import com.example.ramazan.prayer.service.ImageStore;
+import com.example.ramazan.prayer.service.RestaurantGeoIndex;
+import com.example.ramazan.prayer.service.RestaurantService;
+import com.example.ramazan.repository.IftarMenuRepository;
+import com.example.ramazan.repository.RestaurantRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code RestaurantService.nearBy} sintetik restoranlar üzərində. Repozitori DB-siz proxy-dir,
+ * qutu sorğusu yaddaşdakı siyahını süzür, ona görə ölçülən yalnız servisin öz işidir.
+ * {@code source=index} yaddaş indeksini, {@code source=query} indeks qurulmamış halı (qutu sorğusu) ölçür.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RestaurantNearbyBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int restaurants;
+
+    @Param({"1", "5", "25"})
+    public double radiusKm;
+
+    @Param({"index", "query"})
+    public String source;
+
+    private RestaurantService service;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<RestaurantSummary> data = new ArrayList<>(restaurants);
+        for (int i = 0; i < restaurants; i++) {
+            // Bakı ətrafında ~50 km radiusda
+            data.add(new RestaurantSummary(i + 1, "Restoran " + i, null, null, null, null, null, null,
+                    "Ünvan " + i, "Bakı",
+                    40.40 + (random.nextDouble() - 0.5) * 0.9,
+                    49.87 + (random.nextDouble() - 0.5) * 1.2,
+                    null, null, null, null, null));
+        }
+
+        RestaurantRepository repository = repository(RestaurantRepository.class, data);
+        RestaurantGeoIndex index = new RestaurantGeoIndex(repository, 0.05, "memory");
+        if ("index".equals(source)) {
+            index.load(data);
+        }
+        service = new RestaurantService(repository, new RestaurantMapperImpl(),
+                repository(IftarMenuRepository.class, List.of()), index, event -> {},
+                new ImageStore(System.getProperty("java.io.tmpdir")), null);
+    }
+
+    @Benchmark
+    public List<RestaurantDto> nearBy() {
+        return service.nearBy(40.4093, 49.8671, radiusKm, 50, null, null);
+    }
+
+    @Benchmark
+    public List<RestaurantDto> nearest() {
+        return service.nearest(40.4093, 49.8671, 20);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, List<RestaurantSummary> rows) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            return switch (method.getName()) {
+                case "findSummariesInBox" -> rows.stream()
+                        .filter(r -> r.latitude() >= (double) args[0] && r.latitude() <= (double) args[1]
+                                && r.longitude() >= (double) args[2] && r.longitude() <= (double) args[3])
+                        .toList();
+                case "findAllSummaries" -> rows;
+                case "toString" -> type.getSimpleName() + "Stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+    }
+}
@@ -1,30 +1,46 @@
 package com.example.ramazan.calculation;
 
+import com.example.ramazan.calculation.dto.HijriDate;
+import com.example.ramazan.calculation.service.HijriCalendarService;
+import com.example.ramazan.config.TimeConfig;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 
+/**
+ * Ramazan günləri hicri təqvimdən götürülür, ona görə hər il üçün işləyir və
+ * hilal düzəlişləri {@link HijriCalendarService} vasitəsilə avtomatik nəzərə alınır.
+ */
 @Service
+@RequiredArgsConstructor
 public class RamadanDayCal {
 
-    private static final LocalDate RAMADAN_START = LocalDate.of(2026, 2, 19);
-    private static final int RAMADAN_LENGTH = 30;
+    private final HijriCalendarService hijriCalendarService;
 
 
     public int getRamadanDay() {
-        LocalDate today = LocalDate.now();
+        return getRamadanDay(LocalDate.now(TimeConfig.zoneId));
+    }
 
-        if (today.isBefore(RAMADAN_START)) {
-            return 0;
-        }
+    public int getRamadanDay(LocalDate date) {
+        HijriDate hijri = hijriCalendarService.toHijri(date);
+        return hijri.month() == HijriCalendarService.RAMADAN ? hijri.day() : 0;
+    }
 
-        int day = (int) ChronoUnit.DAYS.between(RAMADAN_START, today) + 1;
+    /**
+     * Davam edən və ya qarşıdakı Ramazanın ilk günü.
+     */
+    public LocalDate getRamadanStart() {
+        return hijriCalendarService.monthStart(ramadanYear(), HijriCalendarService.RAMADAN);
+    }
 
-        if (day > RAMADAN_LENGTH) {
-            return 0;
-        }
+    public LocalDate getRamadanEnd() {
+        return hijriCalendarService.monthEnd(ramadanYear(), HijriCalendarService.RAMADAN);
+    }
 
-        return day;
+    private int ramadanYear() {
+        HijriDate today = hijriCalendarService.toHijri(LocalDate.now(TimeConfig.zoneId));
+        return today.month() <= HijriCalendarService.RAMADAN ? today.year() : today.year() + 1;
     }
 }
@@ -0,0 +1,9 @@
+package com.example.ramazan.calculation.dto;
+
+public record HijriDate(
+        int year,
+        int month,
+        int day,
+        String monthName,
+        int monthLength
+) {}
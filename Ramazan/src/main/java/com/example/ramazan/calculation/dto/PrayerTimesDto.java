@@ -1,7 +1,8 @@
 package com.example.ramazan.calculation.dto;
 
+import com.example.ramazan.calculation.engine.Prayer;
+
 import java.time.LocalDate;
-import java.util.Map;
 
 public record PrayerTimesDto(
         LocalDate date,
@@ -9,7 +10,19 @@ public record PrayerTimesDto(
         double longitude,
         double tz,
         String method,
-        String imsak,     // HH:mm:ss
-        String iftar,     // HH:mm:ss (maghrib)
-        Map<String, String> fullTimes // eyni map, sadəcə HH:mm:ss
-) {}
+        int[] times       // günün saniyəsi, Prayer.ordinal() sırası ilə; -1 = hesablanmayıb
+) {
+
+    public int time(Prayer prayer) {
+        return times[prayer.ordinal()];
+    }
+
+    public int imsak() {
+        return time(Prayer.IMSAK);
+    }
+
+    // iftar = maghrib
+    public int iftar() {
+        return time(Prayer.MAGHRIB);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ramazan.calculation.engine;
+
+import lombok.Getter;
+
+/**
+ * Yalnız məkandan asılı olan hədlərin bir dəfə hesablanmış forması: enin sinus/kosinusu,
+ * hündürlüyə görə çıxış/batış bucağı və saat qurşağı sürüşməsi. Dəyişməzdir, eyni məkan üçün
+ * çoxlu tarix və metod üzrə təkrar istifadə oluna bilər.
+ */
+@Getter
+public final class LocationContext {
+
+    private final double latitude;
+    private final double longitude;
+    private final double elevation;
+    private final double timeZone;
+
+    private final double sinLatitude;
+    private final double cosLatitude;
+    private final double riseSetAngle;
+    // tz - lng/15, yerli günəş vaxtından saat qurşağına keçid
+    private final double shift;
+
+    private LocationContext(double latitude, double longitude, double elevation, double timeZone) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.elevation = elevation;
+        this.timeZone = timeZone;
+        this.sinLatitude = Math.sin(Math.toRadians(latitude));
+        this.cosLatitude = Math.cos(Math.toRadians(latitude));
+        this.riseSetAngle = 0.833 + 0.0347 * Math.sqrt(elevation);
+        this.shift = timeZone - longitude / 15.0;
+    }
+
+    public static LocationContext of(double latitude, double longitude, double timeZone) {
+        return of(latitude, longitude, 0, timeZone);
+    }
+
+    public static LocationContext of(double latitude, double longitude, double elevation, double timeZone) {
+        return new LocationContext(latitude, longitude, elevation, timeZone);
+    }
+
+    /**
+     * Structure-of-arrays koordinatlardan kontekst massivi qurur.
+     */
+    public static LocationContext[] of(double[] latitudes, double[] longitudes, double timeZone) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("lats və lngs eyni uzunluqda olmalıdır");
+        }
+        LocationContext[] contexts = new LocationContext[latitudes.length];
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = of(latitudes[i], longitudes[i], timeZone);
+        }
+        return contexts;
+    }
+}
@@ -2,9 +2,6 @@ package com.example.ramazan.calculation.engine;
 
 import lombok.*;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Getter
 public class MethodParams {
     private double fajr;
@@ -31,13 +28,4 @@ public class MethodParams {
         this.maghrib = maghrib;
         this.midnight = midnight;
     }
-
-    public Map<String, Object> toMap() {
-        Map<String, Object> m = new HashMap<>();
-        m.put("fajr", fajr);
-        m.put("isha", ishaMin ? isha + " min" : isha);
-        if (maghrib > 0) m.put("maghrib", maghrib);
-        m.put("midnight", midnight);
-        return m;
-    }
 }
@@ -0,0 +1,84 @@
+package com.example.ramazan.calculation.engine;
+
+import com.example.ramazan.enums.CalculationMethod;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Hesablama metodunun əvvəlcədən parse olunmuş, dəyişməz forması.
+ * Bir dəfə yaradılır və bütün thread-lər arasında paylaşılır.
+ */
+@Getter
+public final class MethodProfile {
+
+    private static final double HANAFI_ASR_FACTOR = 2.0;
+
+    private final CalculationMethod method;
+    private final double fajrAngle;
+    private final double ishaAngle;
+    private final double maghribAngle;
+    private final double asrFactor;
+    private final String midnight;
+
+    @Getter(AccessLevel.NONE)
+    private final double[] offsets;
+
+    private MethodProfile(CalculationMethod method,
+                          double fajrAngle,
+                          double ishaAngle,
+                          double maghribAngle,
+                          double asrFactor,
+                          String midnight,
+                          double[] offsets) {
+        this.method = method;
+        this.fajrAngle = fajrAngle;
+        this.ishaAngle = ishaAngle;
+        this.maghribAngle = maghribAngle;
+        this.asrFactor = asrFactor;
+        this.midnight = midnight;
+        this.offsets = offsets;
+    }
+
+    // Köhnə settings map-in nəticəsi ilə eynidir: "90 min" kimi dəyərlər rəqəm kimi oxunurdu,
+    // asr isə konstruktorda həmişə "Hanafi" ilə əvəz olunurdu.
+    static MethodProfile compile(CalculationMethod method, MethodParams params) {
+        return new MethodProfile(
+                method,
+                params.getFajr(),
+                params.getIsha(),
+                Math.max(params.getMaghrib(), 0),
+                HANAFI_ASR_FACTOR,
+                params.getMidnight(),
+                new double[Prayer.COUNT]
+        );
+    }
+
+    /**
+     * Dəqiqə ilə düzəlişlər tətbiq olunmuş yeni profil qaytarır, bu profil dəyişmir.
+     */
+    public MethodProfile withOffsets(double[] minuteOffsets) {
+        if (minuteOffsets.length != Prayer.COUNT) {
+            throw new IllegalArgumentException("Offsets length must be " + Prayer.COUNT);
+        }
+        return new MethodProfile(method, fajrAngle, ishaAngle, maghribAngle, asrFactor, midnight,
+                minuteOffsets.clone());
+    }
+
+    public double offsetMinutes(int prayerIndex) {
+        return offsets[prayerIndex];
+    }
+
+    @Override
+    public String toString() {
+        return "MethodProfile{" +
+                "method=" + method +
+                ", fajrAngle=" + fajrAngle +
+                ", ishaAngle=" + ishaAngle +
+                ", maghribAngle=" + maghribAngle +
+                ", asrFactor=" + asrFactor +
+                ", offsets=" + Arrays.toString(offsets) +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.ramazan.calculation.engine;
+
+import com.example.ramazan.enums.CalculationMethod;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+public final class MethodProfiles {
+
+    private static final CalculationMethod[] METHODS = CalculationMethod.values();
+    private static final Map<CalculationMethod, MethodProfile> PROFILES;
+
+    public static final MethodProfile DEFAULT;
+
+    static {
+        Map<CalculationMethod, MethodParams> params = new EnumMap<>(CalculationMethod.class);
+        params.put(CalculationMethod.MWL, new MethodParams(18.0, 17.0));
+        params.put(CalculationMethod.ISNA, new MethodParams(15.0, 15.0));
+        params.put(CalculationMethod.Egypt, new MethodParams(19.5, 17.5));
+        params.put(CalculationMethod.Makkah, new MethodParams(18.5, 90.0, true));
+        params.put(CalculationMethod.Karachi, new MethodParams(18.0, 18.0));
+        params.put(CalculationMethod.Tehran, new MethodParams(17.7, 14.0, 4.5, "Jafari"));
+        // Qafqaz Müsəlmanları İdarəsinin rəsmi bucaqları təsdiqlənənə qədər Tehran parametrləri
+        params.put(CalculationMethod.CAUCASUS, new MethodParams(17.7, 14.0, 4.5, "Jafari"));
+        params.put(CalculationMethod.Jafari, new MethodParams(16.0, 14.0, 4.0, "Jafari"));
+
+        Map<CalculationMethod, MethodProfile> compiled = new EnumMap<>(CalculationMethod.class);
+        for (CalculationMethod method : METHODS) {
+            compiled.put(method, MethodProfile.compile(method, params.get(method)));
+        }
+        PROFILES = Collections.unmodifiableMap(compiled);
+        DEFAULT = PROFILES.get(CalculationMethod.MWL);
+    }
+
+    private MethodProfiles() {}
+
+    public static MethodProfile get(CalculationMethod method) {
+        return PROFILES.get(method);
+    }
+
+    /**
+     * Sorğudan gələn metod adını profilə çevirir. Boş və ya tanınmayan dəyərlər MWL-ə düşür,
+     * çünki mobil tətbiqin köhnə versiyaları "2" kimi dəyərlər göndərir.
+     */
+    public static MethodProfile resolve(String method) {
+        if (method == null || method.isBlank()) return DEFAULT;
+
+        String name = method.trim();
+        for (CalculationMethod m : METHODS) {
+            if (m.name().equalsIgnoreCase(name)) return PROFILES.get(m);
+        }
+        return DEFAULT;
+    }
+}
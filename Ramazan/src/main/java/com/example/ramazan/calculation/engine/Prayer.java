@@ -0,0 +1,35 @@
+package com.example.ramazan.calculation.engine;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Engine-in hesabladığı vaxtlar. {@link #ordinal()} nəticə massivində indeks kimi istifadə olunur,
+ * ona görə də sıra dəyişdirilməməlidir.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Prayer {
+    IMSAK("imsak", "İmsak"),
+    FAJR("fajr", "Sübh"),
+    SUNRISE("sunrise", "Günəş çıxışı"),
+    DHUHR("dhuhr", "Zöhr"),
+    ASR("asr", "Əsr"),
+    SUNSET("sunset", "Günəş batışı"),
+    MAGHRIB("maghrib", "Məğrib"),
+    ISHA("isha", "İşa"),
+    MIDNIGHT("midnight", "Gecə yarısı");
+
+    public static final Prayer[] VALUES = values();
+    public static final int COUNT = VALUES.length;
+
+    private final String key;
+    private final String displayName;
+
+    public static Prayer fromKey(String key) {
+        for (Prayer p : VALUES) {
+            if (p.key.equals(key)) return p;
+        }
+        return null;
+    }
+}
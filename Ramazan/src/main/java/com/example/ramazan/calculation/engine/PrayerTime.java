@@ -1,186 +1,227 @@
 package com.example.ramazan.calculation.engine;
 
+import com.example.ramazan.common.util.TimeText;
+
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Vəziyyətsiz (stateless) hesablama mühərriki. Bütün parametrlər çağırışa ötürülür,
+ * ona görə də bir instansiya bütün sorğular arasında paralel paylaşıla bilər.
+ */
 public class PrayerTime {
 
-    private static final Map<String, String> TIME_NAMES = Map.of(
-            "imsak", "İmsak",
-            "fajr", "Sübh",
-            "sunrise", "Günəş çıxışı",
-            "dhuhr", "Zöhr",
-            "asr", "Əsr",
-            "sunset", "Günəş batışı",
-            "maghrib", "Məğrib",
-            "isha", "İşa",
-            "midnight", "Gecə yarısı"
-    );
-
-    private static final Map<String, MethodParams> METHODS = Map.of(
-            "MWL", new MethodParams(18.0, 17.0),
-            "ISNA", new MethodParams(15.0, 15.0),
-            "Egypt", new MethodParams(19.5, 17.5),
-            "Makkah", new MethodParams(18.5, 90.0, true),
-            "Karachi", new MethodParams(18.0, 18.0),
-            "Tehran", new MethodParams(17.7, 14.0, 4.5, "Jafari"),
-            "Jafari", new MethodParams(16.0, 14.0, 4.0, "Jafari")
-    );
-
-    private String calcMethod = "MWL";
-    private final Map<String, Object> settings = new HashMap<>();
-    private final Map<String, Double> offsets = new HashMap<>();
-
-    private double latitude, longitude, elevation = 0;
-    private double timeZone;
-    private double julianDate;
+    // Nəticəni dəyişən hər dəyişiklikdə artırılmalıdır, HTTP ETag-lər buna bağlıdır
+    public static final String VERSION = "1";
+
+    private static final double IMSAK_MINUTES = 5.0;
+
+    // Prayer sırası ilə: imsak, fajr, sunrise, dhuhr, asr, sunset, maghrib, isha, midnight
+    private static final double[] INITIAL_TIMES = {5, 5, 6, 12, 13, 18, 18, 18, 0};
+
+    // Günəşin mövqeyindən hesablanan vaxtlar; imsak fajr-dan, midnight isə sunset/fajr-dan alınır
+    private static final Prayer[] SUN_PRAYERS = {
+            Prayer.FAJR, Prayer.SUNRISE, Prayer.DHUHR, Prayer.ASR, Prayer.SUNSET, Prayer.MAGHRIB, Prayer.ISHA
+    };
+
+    private final SolarEphemeris ephemeris;
 
     public PrayerTime() {
-        this("MWL");
+        this(null);
     }
 
-    public PrayerTime(String method) {
-        setMethod(method);
-
-        settings.put("dhuhr", "0 min");
-        settings.put("asr", "Hanafi");
-        settings.put("highLats", "NightMiddle");
+    /**
+     * @param ephemeris paylaşılan Günəş cədvəli; {@code null} olduqda və ya tarix cədvəldən kənarda
+     *                  olduqda Günəşin mövqeyi birbaşa hesablanır
+     */
+    public PrayerTime(SolarEphemeris ephemeris) {
+        this.ephemeris = ephemeris;
+    }
 
-        for (String key : TIME_NAMES.keySet()) {
-            offsets.put(key, 0.0);
-        }
+    public Map<String, String> getPrayerTimes(MethodProfile profile, LocalDate date, double lat, double lng, double tz) {
+        return getPrayerTimes(profile, date, lat, lng, 0, tz);
     }
 
-    public void setMethod(String method) {
-        if (METHODS.containsKey(method)) {
-            adjust(METHODS.get(method).toMap());
-            calcMethod = method;
+    public Map<String, String> getPrayerTimes(MethodProfile profile, LocalDate date,
+                                              double lat, double lng, double elv, double tz) {
+        return toDisplayMap(computeTimes(profile, date, lat, lng, elv, tz));
+    }
 
-            if ("Tehran".equals(method) || "Jafari".equals(method)) {
-                settings.put("asr", "Jafari");
-            }
+    public Map<String, String> toDisplayMap(double[] times) {
+        Map<String, String> formatted = new LinkedHashMap<>();
+        for (Prayer prayer : Prayer.VALUES) {
+            formatted.put(prayer.getDisplayName(), formatTime(times[prayer.ordinal()]));
         }
+        return formatted;
     }
 
-    public void adjust(Map<String, Object> params) {
-        settings.putAll(params);
+    /**
+     * Saat kəsrlərini ən yaxın dəqiqəyə yuvarlaqlaşdırılmış günün saniyəsinə çevirir,
+     * hesablanmayan vaxtlar {@link TimeText#MISSING} olur.
+     */
+    public int[] toSecondsOfDay(double[] times, int[] out) {
+        for (int i = 0; i < Prayer.COUNT; i++) {
+            out[i] = secondOfDay(times[i]);
+        }
+        return out;
     }
 
-    public void tune(Map<String, Double> timeOffsets) {
-        offsets.putAll(timeOffsets);
+    public double[] computeTimes(MethodProfile profile, LocalDate date, double lat, double lng, double tz) {
+        return computeTimes(profile, date, lat, lng, 0, tz);
     }
 
-    public Map<String, String> getPrayerTimes(LocalDate date, double lat, double lng, double tz) {
-        return getPrayerTimes(date, lat, lng, 0, tz);
+    public double[] computeTimes(MethodProfile profile, LocalDate date, double lat, double lng, double elv, double tz) {
+        return computeTimes(profile, date, lat, lng, elv, tz, new double[Prayer.COUNT]);
     }
 
-    public Map<String, String> getPrayerTimes(LocalDate date, double lat, double lng, double elv, double tz) {
-        this.latitude = lat;
-        this.longitude = lng;
-        this.elevation = elv;
-        this.timeZone = tz;
+    public double[] computeTimes(MethodProfile profile, LocalDate date,
+                                 double lat, double lng, double elv, double tz, double[] times) {
+        return computeTimes(profile, date, LocationContext.of(lat, lng, elv, tz), times);
+    }
 
-        this.julianDate = julian(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    /**
+     * Vaxtları saat kəsri kimi {@code times} massivinə yazır (indeks {@link Prayer#ordinal()}).
+     * Massiv çağıran tərəfindən təkrar istifadə oluna bilər, daxildə heç bir map və ya boxing yoxdur.
+     * Eyni məkan üçün çoxlu tarix hesablanırsa {@code location} bir dəfə yaradılmalıdır.
+     */
+    public double[] computeTimes(MethodProfile profile, LocalDate date, LocationContext location, double[] times) {
+        double jd = julian(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
 
-        Map<String, Double> times = initialTimes();
+        System.arraycopy(INITIAL_TIMES, 0, times, 0, Prayer.COUNT);
         for (int i = 0; i < 2; i++) {
-            times = computePrayerTimesInternal(times);
+            computePrayerTimesInternal(profile, jd, location, times);
         }
 
-        times = adjustTimes(times);
+        adjustTimes(times, location.getShift());
 
-        double night = timeDiff(times.get("sunset"), times.get("fajr"));
-        times.put("midnight", times.get("sunset") + night / 2);
+        double sunset = times[Prayer.SUNSET.ordinal()];
+        double night = timeDiff(sunset, times[Prayer.FAJR.ordinal()]);
+        times[Prayer.MIDNIGHT.ordinal()] = sunset + night / 2;
 
-        for (var key : times.keySet()) {
-            times.computeIfPresent(key, (k, v) -> v + offsets.getOrDefault(k, 0.0) / 60.0);
+        for (int i = 0; i < Prayer.COUNT; i++) {
+            times[i] += profile.offsetMinutes(i) / 60.0;
         }
 
-        Map<String, String> formatted = new LinkedHashMap<>();
-        for (var entry : times.entrySet()) {
-            String azName = TIME_NAMES.getOrDefault(entry.getKey(), entry.getKey());
-            formatted.put(azName, formatTime(entry.getValue()));
+        return times;
+    }
+
+    public void computeBatch(MethodProfile profile, LocalDate date,
+                             double[] lats, double[] lngs, double tz, double[][] out) {
+        computeBatch(profile, date, LocationContext.of(lats, lngs, tz), out);
+    }
+
+    /**
+     * Bir tarix üçün çoxlu məkanın vaxtlarını bir dövrədə hesablayır, nəticə
+     * {@code out[prayer.ordinal()][i]} massivlərinə yazılır.
+     * Birinci iterasiyada başlanğıc vaxtlar hamı üçün eyni olduğundan Günəşin mövqeyi hər vaxt üçün
+     * bir dəfə hesablanır; nəticələr {@link #computeTimes} ilə bit-bit eynidir.
+     */
+    public void computeBatch(MethodProfile profile, LocalDate date,
+                             LocationContext[] locations, double[][] out) {
+        int n = locations.length;
+        double jd = julian(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+
+        for (Prayer prayer : SUN_PRAYERS) {
+            int k = prayer.ordinal();
+            double time = INITIAL_TIMES[k] / 24.0;
+            double decl = declination(jd + time);
+            double noon = midDay(jd, time);
+            double[] row = out[k];
+            for (int i = 0; i < n; i++) {
+                row[i] = prayerTime(prayer, profile, locations[i], decl, noon);
+            }
         }
 
-        return formatted;
+        for (Prayer prayer : SUN_PRAYERS) {
+            double[] row = out[prayer.ordinal()];
+            for (int i = 0; i < n; i++) {
+                double time = row[i] / 24.0;
+                double decl = prayer == Prayer.DHUHR ? 0 : declination(jd + time);
+                row[i] = prayerTime(prayer, profile, locations[i], decl, midDay(jd, time));
+            }
+        }
+
+        double[] imsak = out[Prayer.IMSAK.ordinal()];
+        double[] fajr = out[Prayer.FAJR.ordinal()];
+        double[] sunset = out[Prayer.SUNSET.ordinal()];
+        double[] midnight = out[Prayer.MIDNIGHT.ordinal()];
+        for (int i = 0; i < n; i++) {
+            imsak[i] = fajr[i] - IMSAK_MINUTES / 60.0;
+        }
+
+        for (int k = 0; k < Prayer.COUNT; k++) {
+            if (k == Prayer.MIDNIGHT.ordinal()) continue;
+            double[] row = out[k];
+            for (int i = 0; i < n; i++) {
+                row[i] += locations[i].getShift();
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            midnight[i] = sunset[i] + timeDiff(sunset[i], fajr[i]) / 2;
+        }
+
+        for (int k = 0; k < Prayer.COUNT; k++) {
+            double offset = profile.offsetMinutes(k) / 60.0;
+            double[] row = out[k];
+            for (int i = 0; i < n; i++) {
+                row[i] += offset;
+            }
+        }
     }
 
-    private Map<String, Double> initialTimes() {
-        Map<String, Double> times = new HashMap<>();
-        times.put("imsak", 5.0);
-        times.put("fajr", 5.0);
-        times.put("sunrise", 6.0);
-        times.put("dhuhr", 12.0);
-        times.put("asr", 13.0);
-        times.put("sunset", 18.0);
-        times.put("maghrib", 18.0);
-        times.put("isha", 18.0);
-        return times;
+    private void computePrayerTimesInternal(MethodProfile profile, double jd, LocationContext location, double[] times) {
+        for (Prayer prayer : SUN_PRAYERS) {
+            int k = prayer.ordinal();
+            double time = times[k] / 24.0;
+            double decl = prayer == Prayer.DHUHR ? 0 : declination(jd + time);
+            times[k] = prayerTime(prayer, profile, location, decl, midDay(jd, time));
+        }
+        times[Prayer.IMSAK.ordinal()] = times[Prayer.FAJR.ordinal()] - IMSAK_MINUTES / 60.0;
     }
 
-    private Map<String, Double> computePrayerTimesInternal(Map<String, Double> times) {
-        Map<String, Double> dayPort = dayPortion(times);
-
-        double dhuhr = midDay(dayPort.get("dhuhr"));
-        double fajr = sunAngleTime(eval(settings.get("fajr")), dayPort.get("fajr"), true);
-        double imsak = fajr - 5.0 / 60.0;
-        double sunrise = sunAngleTime(riseSetAngle(), dayPort.get("sunrise"), true);
-        double asr = asrTime(asrFactor(settings.get("asr")), dayPort.get("asr"));
-        double sunset = sunAngleTime(riseSetAngle(), dayPort.get("sunset"), false);
-        double maghrib = sunAngleTime(eval(settings.get("maghrib")), dayPort.get("maghrib"), false);
-        double isha = sunAngleTime(eval(settings.get("isha")), dayPort.get("isha"), false);
-
-        Map<String, Double> result = new HashMap<>();
-        result.put("imsak", imsak);
-        result.put("fajr", fajr);
-        result.put("sunrise", sunrise);
-        result.put("dhuhr", dhuhr);
-        result.put("asr", asr);
-        result.put("sunset", sunset);
-        result.put("maghrib", maghrib);
-        result.put("isha", isha);
-        return result;
-    }
-
-    private double midDay(double time) {
-        double eqt = sunPosition(julianDate + time).getEquation();
+    private double prayerTime(Prayer prayer, MethodProfile profile, LocationContext location,
+                              double decl, double noon) {
+        return switch (prayer) {
+            case DHUHR -> noon;
+            case FAJR -> sunAngleTime(decl, noon, location, profile.getFajrAngle(), true);
+            case SUNRISE -> sunAngleTime(decl, noon, location, location.getRiseSetAngle(), true);
+            case ASR -> sunAngleTime(decl, noon, location,
+                    asrAngle(decl, location.getLatitude(), profile.getAsrFactor()), false);
+            case SUNSET -> sunAngleTime(decl, noon, location, location.getRiseSetAngle(), false);
+            case MAGHRIB -> sunAngleTime(decl, noon, location, profile.getMaghribAngle(), false);
+            case ISHA -> sunAngleTime(decl, noon, location, profile.getIshaAngle(), false);
+            default -> throw new IllegalStateException("Günəş bucağı ilə hesablanmır: " + prayer);
+        };
+    }
+
+    private double midDay(double jd, double time) {
+        double eqt = equation(jd + time);
         return fixHour(12 - eqt);
     }
 
-    private double sunAngleTime(double angle, double time, boolean ccw) {
-        var pos = sunPosition(julianDate + time);
-        double decl = pos.getDeclination();
-        double noon = midDay(time);
-        double numerator = -Math.sin(Math.toRadians(angle)) - Math.sin(Math.toRadians(decl)) * Math.sin(Math.toRadians(latitude));
-        double denominator = Math.cos(Math.toRadians(decl)) * Math.cos(Math.toRadians(latitude));
+    private double sunAngleTime(double decl, double noon, LocationContext location, double angle, boolean ccw) {
+        double numerator = -Math.sin(Math.toRadians(angle)) - Math.sin(Math.toRadians(decl)) * location.getSinLatitude();
+        double denominator = Math.cos(Math.toRadians(decl)) * location.getCosLatitude();
         double x = numerator / denominator;
         x = Math.max(-1, Math.min(1, x));
         double t = Math.toDegrees(Math.acos(x)) / 15.0;
         return noon + (ccw ? -t : t);
     }
 
-    private double asrTime(double factor, double time) {
-        var pos = sunPosition(julianDate + time);
-        double decl = pos.getDeclination();
-        double angle = -Math.toDegrees(Math.atan(1.0 / (factor + Math.tan(Math.toRadians(Math.abs(latitude - decl))))));
-        return sunAngleTime(angle, time, false);
+    private double asrAngle(double decl, double lat, double factor) {
+        return -Math.toDegrees(Math.atan(1.0 / (factor + Math.tan(Math.toRadians(Math.abs(lat - decl))))));
     }
 
-    private SunPosition sunPosition(double jd) {
-        double D = jd - 2451545.0;
-        double g = fixAngle(357.529 + 0.98560028 * D);
-        double q = fixAngle(280.459 + 0.98564736 * D);
-        double L = fixAngle(q + 1.915 * Math.sin(Math.toRadians(g)) + 0.020 * Math.sin(Math.toRadians(2 * g)));
-        double e = 23.439 - 0.00000036 * D;
-        double RA = Math.toDegrees(Math.atan2(
-                Math.cos(Math.toRadians(e)) * Math.sin(Math.toRadians(L)),
-                Math.cos(Math.toRadians(L))
-        )) / 15.0;
-        double eqt = q / 15.0 - fixHour(RA);
-        double decl = Math.toDegrees(Math.asin(Math.sin(Math.toRadians(e)) * Math.sin(Math.toRadians(L))));
-        return new SunPosition(decl, eqt);
+    private double declination(double jd) {
+        if (ephemeris != null && ephemeris.covers(jd)) return ephemeris.declination(jd);
+        return SunPosition.at(jd).getDeclination();
+    }
+
+    private double equation(double jd) {
+        if (ephemeris != null && ephemeris.covers(jd)) return ephemeris.equation(jd);
+        return SunPosition.at(jd).getEquation();
     }
 
     private double julian(int year, int month, int day) {
@@ -195,59 +236,31 @@ public class PrayerTime {
                 + day + b - 1524.5;
     }
 
-    private double riseSetAngle() {
-        return 0.833 + 0.0347 * Math.sqrt(elevation);
-    }
-
-    private double asrFactor(Object asrParam) {
-        if ("Hanafi".equals(asrParam)) return 2.0;
-        if ("Standard".equals(asrParam)) return 1.0;
-        if ("Jafari".equals(asrParam)) return 1.5;
-        return eval(asrParam);
-    }
-
-    private Map<String, Double> adjustTimes(Map<String, Double> times) {
-        Map<String, Double> result = new HashMap<>();
-        for (var entry : times.entrySet()) {
-            result.put(entry.getKey(), entry.getValue() + timeZone - longitude / 15.0);
-        }
-        return result;
-    }
-
-    private Map<String, Double> dayPortion(Map<String, Double> times) {
-        Map<String, Double> result = new HashMap<>();
-        for (var e : times.entrySet()) {
-            result.put(e.getKey(), e.getValue() / 24.0);
+    private void adjustTimes(double[] times, double shift) {
+        for (int i = 0; i < Prayer.COUNT; i++) {
+            times[i] += shift;
         }
-        return result;
     }
 
-    private double timeDiff(Double t1, Double t2) {
+    private double timeDiff(double t1, double t2) {
         return fixHour(t2 - t1);
     }
 
-    private double eval(Object val) {
-        if (val instanceof Number n) return n.doubleValue();
-        String s = String.valueOf(val).replaceAll("[^0-9.\\-+]", "");
-        return s.isEmpty() ? 0 : Double.parseDouble(s);
-    }
-
     private double fixHour(double a) {
         a = a - 24 * Math.floor(a / 24);
         return a < 0 ? a + 24 : a;
     }
 
-    private double fixAngle(double a) {
-        a = a - 360 * Math.floor(a / 360);
-        return a < 0 ? a + 360 : a;
+    private String formatTime(double time) {
+        return TimeText.hhmm(secondOfDay(time));
     }
 
-    private String formatTime(double time) {
-        if (Double.isNaN(time)) return "-----";
+    private int secondOfDay(double time) {
+        if (Double.isNaN(time)) return TimeText.MISSING;
         time = fixHour(time + 0.5 / 60);
         int h = (int) time;
         int m = (int) ((time - h) * 60);
-        return String.format("%02d:%02d", h, m);
+        return (h * 60 + m) * 60;
     }
 
 }
@@ -0,0 +1,78 @@
+package com.example.ramazan.calculation.engine;
+
+import lombok.Getter;
+
+/**
+ * Günəşin meyli və vaxt tənliyi üçün gündəlik cədvəl. Nəticə yalnız Julian tarixindən asılıdır,
+ * ona görə cədvəl bir dəfə qurulur və bütün şəhərlər, bütün sorğular üçün paylaşılır.
+ * Günün kəsr hissəsi üç qonşu nöqtə üzrə kvadratik interpolyasiya ilə tapılır.
+ */
+public final class SolarEphemeris {
+
+    @Getter
+    private final int fromYear;
+    @Getter
+    private final int toYear;
+
+    // Cədvəlin ilk nöqtəsi fromYear-in 1 yanvarından bir gün əvvəlin 0h UT anıdır
+    private final double firstJd;
+    private final double[] declination;
+    private final double[] equation;
+
+    public SolarEphemeris(int fromYear, int toYear) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("toYear fromYear-dən kiçik ola bilməz");
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.firstJd = julianNewYear(fromYear) - 1;
+
+        // hər tərəfdən bir əlavə nöqtə interpolyasiya üçün lazımdır
+        int size = (int) (julianNewYear(toYear + 1) - firstJd) + 2;
+        this.declination = new double[size];
+        this.equation = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            SunPosition pos = SunPosition.at(firstJd + i);
+            declination[i] = pos.getDeclination();
+            // q/15 və RA ayrı-ayrılıqda 24-ə görə dövr edir, interpolyasiyadan əvvəl [-12, 12) aralığına salınır
+            double eqt = pos.getEquation();
+            equation[i] = eqt - 24 * Math.floor((eqt + 12) / 24);
+        }
+    }
+
+    public boolean covers(double jd) {
+        double x = jd - firstJd;
+        return x >= 1 && x <= declination.length - 2;
+    }
+
+    public double declination(double jd) {
+        return interpolate(declination, jd - firstJd);
+    }
+
+    /**
+     * Vaxt tənliyi saatla, [-12, 12) aralığında; yalnız {@code fixHour(12 - eqt)} kimi istifadə olunmalıdır.
+     */
+    public double equation(double jd) {
+        return interpolate(equation, jd - firstJd);
+    }
+
+    private static double interpolate(double[] table, double x) {
+        int i = (int) Math.floor(x + 0.5);
+        double t = x - i;
+        double prev = table[i - 1];
+        double mid = table[i];
+        double next = table[i + 1];
+        return mid + t * (next - prev) * 0.5 + t * t * (next - 2 * mid + prev) * 0.5;
+    }
+
+    private static double julianNewYear(int year) {
+        // PrayerTime.julian(year, 1, 1) ilə eyni düstur
+        int y = year - 1;
+        int a = y / 100;
+        int b = 2 - a + (a / 4);
+        return Math.floor(365.25 * (y + 4716))
+                + Math.floor(30.6001 * (13 + 1))
+                + 1 + b - 1524.5;
+    }
+}
@@ -10,6 +10,34 @@ public class SunPosition {
     private final double declination;
     private final double equation;
 
+    /**
+     * Verilmiş Julian tarixi üçün Günəşin meyli (dərəcə) və vaxt tənliyi (saat).
+     */
+    public static SunPosition at(double jd) {
+        double D = jd - 2451545.0;
+        double g = fixAngle(357.529 + 0.98560028 * D);
+        double q = fixAngle(280.459 + 0.98564736 * D);
+        double L = fixAngle(q + 1.915 * Math.sin(Math.toRadians(g)) + 0.020 * Math.sin(Math.toRadians(2 * g)));
+        double e = 23.439 - 0.00000036 * D;
+        double RA = Math.toDegrees(Math.atan2(
+                Math.cos(Math.toRadians(e)) * Math.sin(Math.toRadians(L)),
+                Math.cos(Math.toRadians(L))
+        )) / 15.0;
+        double eqt = q / 15.0 - fixHour(RA);
+        double decl = Math.toDegrees(Math.asin(Math.sin(Math.toRadians(e)) * Math.sin(Math.toRadians(L))));
+        return new SunPosition(decl, eqt);
+    }
+
+    private static double fixHour(double a) {
+        a = a - 24 * Math.floor(a / 24);
+        return a < 0 ? a + 24 : a;
+    }
+
+    private static double fixAngle(double a) {
+        a = a - 360 * Math.floor(a / 360);
+        return a < 0 ? a + 360 : a;
+    }
+
     @Override
     public String toString() {
         return "SunPosition{" +
@@ -18,4 +46,4 @@ public class SunPosition {
                 '}';
     }
 
-}
\ No newline at end of file
+}
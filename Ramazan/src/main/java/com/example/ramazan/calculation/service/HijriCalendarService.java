@@ -0,0 +1,228 @@
+package com.example.ramazan.calculation.service;
+
+import com.example.ramazan.calculation.dto.HijriDate;
+import com.example.ramazan.model.HijriMonthOverride;
+import com.example.ramazan.repository.HijriMonthOverrideRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.chrono.HijrahChronology;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Qriqorian ↔ hicri çevirmə üçün cədvəl. Ayların başlanğıcı bir dəfə Umm al-Qura təqvimindən
+ * ({@link HijrahChronology}) götürülür, hər gün üçün isə ayın indeksi saxlanılır, ona görə hər iki
+ * istiqamətdə çevirmə O(1)-dir. Hilalın görünməsinə görə elan olunan fərqlər ayın başlanğıcını
+ * dəyişən düzəlişlər kimi tətbiq olunur və cədvəl yenidən qurulur.
+ */
+@Service
+@Slf4j
+public class HijriCalendarService {
+
+    public static final int RAMADAN = 9;
+
+    private static final String[] MONTH_NAMES = {
+            "Məhərrəm", "Səfər", "Rəbiüləvvəl", "Rəbiülaxır", "Cəmadiyələvvəl", "Cəmadiyəlaxır",
+            "Rəcəb", "Şaban", "Ramazan", "Şəvval", "Zilqədə", "Zilhiccə"
+    };
+
+    private static final int MIN_YEAR = 1300;
+    private static final int MAX_YEAR = 1600;
+    private static final int MONTHS = (MAX_YEAR - MIN_YEAR + 1) * 12;
+
+    // Umm al-Qura üzrə ayların başlanğıcı (epoch day), sonuncu element cədvəlin sonudur
+    private static final long[] BASE_MONTH_STARTS = baseMonthStarts();
+
+    private final HijriMonthOverrideRepository overrideRepository;
+    private final Map<Integer, LocalDate> configuredOverrides;
+
+    private volatile Table table;
+    private volatile Map<Integer, LocalDate> overrides;
+
+    public HijriCalendarService(HijriMonthOverrideRepository overrideRepository,
+                                @Value("${prayer.hijri.overrides:1447-09=2026-02-19}") String configuredOverrides) {
+        this.overrideRepository = overrideRepository;
+        this.configuredOverrides = parseOverrides(configuredOverrides);
+        apply(this.configuredOverrides);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOverrides() {
+        try {
+            Map<Integer, LocalDate> merged = new TreeMap<>(configuredOverrides);
+            for (HijriMonthOverride row : overrideRepository.findAll()) {
+                merged.put(index(row.getHijriYear(), row.getHijriMonth()), row.getStartDate());
+            }
+            apply(merged);
+            log.info("Hicri təqvim: {} düzəliş tətbiq olundu", merged.size());
+        } catch (DataAccessException e) {
+            log.warn("hijri_month_overrides cədvəli oxunmadı, yalnız konfiqurasiya düzəlişləri istifadə olunur: {}",
+                    e.getMessage());
+        }
+    }
+
+    public HijriDate toHijri(LocalDate date) {
+        Table t = table;
+        long offset = date.toEpochDay() - t.monthStarts[0];
+        if (offset < 0 || offset >= t.monthByDay.length) {
+            throw new IllegalArgumentException("Tarix hicri cədvəldən kənardadır: " + date);
+        }
+        int month = t.monthByDay[(int) offset];
+        int day = (int) (date.toEpochDay() - t.monthStarts[month]) + 1;
+        int length = (int) (t.monthStarts[month + 1] - t.monthStarts[month]);
+        return new HijriDate(MIN_YEAR + month / 12, month % 12 + 1, day, MONTH_NAMES[month % 12], length);
+    }
+
+    public LocalDate toGregorian(int year, int month, int day) {
+        Table t = table;
+        int index = index(year, month);
+        int length = (int) (t.monthStarts[index + 1] - t.monthStarts[index]);
+        if (day < 1 || day > length) {
+            throw new IllegalArgumentException("Hicri gün 1 ilə " + length + " arasında olmalıdır");
+        }
+        return LocalDate.ofEpochDay(t.monthStarts[index] + day - 1);
+    }
+
+    public LocalDate monthStart(int year, int month) {
+        return toGregorian(year, month, 1);
+    }
+
+    public LocalDate monthEnd(int year, int month) {
+        Table t = table;
+        int index = index(year, month);
+        return LocalDate.ofEpochDay(t.monthStarts[index + 1] - 1);
+    }
+
+    /**
+     * İl və ay üzrə düzəlişlər, açar "yyyy-MM" formasındadır.
+     */
+    public Map<String, LocalDate> getOverrides() {
+        Map<String, LocalDate> result = new TreeMap<>();
+        overrides.forEach((index, start) ->
+                result.put(String.format("%d-%02d", MIN_YEAR + index / 12, index % 12 + 1), start));
+        return result;
+    }
+
+    /**
+     * Ayın başlanğıcını dəyişir. Qonşu aylar 29 və ya 30 gün olmalıdır, əks halda düzəliş rədd edilir.
+     */
+    public synchronized HijriDate setOverride(int year, int month, LocalDate startDate) {
+        int index = index(year, month);
+        Map<Integer, LocalDate> next = new TreeMap<>(overrides);
+        next.put(index, startDate);
+        Table built = build(next);
+
+        HijriMonthOverride row = overrideRepository.findByHijriYearAndHijriMonth(year, month)
+                .orElseGet(HijriMonthOverride::new);
+        row.setHijriYear(year);
+        row.setHijriMonth(month);
+        row.setStartDate(startDate);
+        overrideRepository.save(row);
+
+        overrides = Collections.unmodifiableMap(next);
+        table = built;
+        log.info("Hicri {}-{} başlanğıcı {} olaraq dəyişdi", year, month, startDate);
+        return toHijri(startDate);
+    }
+
+    /**
+     * DB-dəki düzəlişi silir; konfiqurasiyada verilmiş düzəliş varsa o qüvvədə qalır.
+     */
+    public synchronized void removeOverride(int year, int month) {
+        int index = index(year, month);
+        Map<Integer, LocalDate> next = new TreeMap<>(overrides);
+        next.remove(index);
+        if (configuredOverrides.containsKey(index)) {
+            next.put(index, configuredOverrides.get(index));
+        }
+        Table built = build(next);
+
+        overrideRepository.findByHijriYearAndHijriMonth(year, month).ifPresent(overrideRepository::delete);
+
+        overrides = Collections.unmodifiableMap(next);
+        table = built;
+    }
+
+    private synchronized void apply(Map<Integer, LocalDate> next) {
+        Table built = build(next);
+        overrides = Collections.unmodifiableMap(new TreeMap<>(next));
+        table = built;
+    }
+
+    private static Table build(Map<Integer, LocalDate> overrides) {
+        long[] starts = BASE_MONTH_STARTS.clone();
+        overrides.forEach((index, start) -> starts[index] = start.toEpochDay());
+
+        for (int index : overrides.keySet()) {
+            checkLength(starts, index - 1);
+            checkLength(starts, index);
+        }
+
+        char[] monthByDay = new char[(int) (starts[MONTHS] - starts[0])];
+        for (int month = 0; month < MONTHS; month++) {
+            int from = (int) (starts[month] - starts[0]);
+            int to = (int) (starts[month + 1] - starts[0]);
+            for (int day = from; day < to; day++) {
+                monthByDay[day] = (char) month;
+            }
+        }
+        return new Table(starts, monthByDay);
+    }
+
+    private static void checkLength(long[] starts, int index) {
+        if (index < 0 || index >= MONTHS) return;
+        long length = starts[index + 1] - starts[index];
+        if (length < 29 || length > 30) {
+            throw new IllegalArgumentException(String.format("Hicri %d-%02d ayı %d gün olur, 29 və ya 30 olmalıdır",
+                    MIN_YEAR + index / 12, index % 12 + 1, length));
+        }
+    }
+
+    private static int index(int year, int month) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("Hicri il " + MIN_YEAR + " ilə " + MAX_YEAR + " arasında olmalıdır");
+        }
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Hicri ay 1 ilə 12 arasında olmalıdır");
+        }
+        return (year - MIN_YEAR) * 12 + month - 1;
+    }
+
+    private static Map<Integer, LocalDate> parseOverrides(String value) {
+        Map<Integer, LocalDate> result = new TreeMap<>();
+        if (value == null || value.isBlank()) return result;
+
+        // 1447-09=2026-02-19,1447-10=2026-03-20
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            String[] yearMonth = parts[0].trim().split("-");
+            if (parts.length != 2 || yearMonth.length != 2) {
+                throw new IllegalArgumentException("prayer.hijri.overrides düzgün deyil: " + entry);
+            }
+            result.put(index(Integer.parseInt(yearMonth[0]), Integer.parseInt(yearMonth[1])),
+                    LocalDate.parse(parts[1].trim()));
+        }
+        return result;
+    }
+
+    private static long[] baseMonthStarts() {
+        HijrahChronology chronology = HijrahChronology.INSTANCE;
+        long[] starts = new long[MONTHS + 1];
+        for (int index = 0; index < MONTHS; index++) {
+            starts[index] = chronology.date(MIN_YEAR + index / 12, index % 12 + 1, 1).toEpochDay();
+        }
+        var last = chronology.date(MAX_YEAR, 12, 1);
+        starts[MONTHS] = last.toEpochDay() + last.lengthOfMonth();
+        return starts;
+    }
+
+    private record Table(long[] monthStarts, char[] monthByDay) {
+    }
+}
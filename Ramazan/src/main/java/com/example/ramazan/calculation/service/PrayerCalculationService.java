@@ -1,50 +1,255 @@
 package com.example.ramazan.calculation.service;
 
+import com.example.ramazan.calculation.engine.LocationContext;
+import com.example.ramazan.calculation.engine.MethodProfile;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
 import com.example.ramazan.calculation.engine.PrayerTime;
 import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 @Service
+@RequiredArgsConstructor
 public class
 PrayerCalculationService {
 
+    public static final int MAX_RANGE_DAYS = 366;
+
+    // Bir fork-join tapşırığının ardıcıl hesabladığı maksimum gün sayı
+    private static final int RANGE_SPLIT_THRESHOLD = 31;
+
+    // Şəhərlərin koordinatları batch hesablama üçün structure-of-arrays şəklində
+    private static final double[] CITY_LATITUDES = AzerbaijanCities.CITIES.stream()
+            .mapToDouble(AzerbaijanCities.City::latitude)
+            .toArray();
+    private static final double[] CITY_LONGITUDES = AzerbaijanCities.CITIES.stream()
+            .mapToDouble(AzerbaijanCities.City::longitude)
+            .toArray();
+
+    private final PrayerTime engine;
+    private final ForkJoinPool prayerComputePool;
+    private final PrayerTimeTiles prayerTimeTiles;
+
+    public static final double MIN_TZ = -12;
+    public static final double MAX_TZ = 14;
+
+    // Yalnız Bakı saat qurşağının (PrecomputedPrayerTimes.STORED_TZ) şəhər kontekstləri saxlanılır,
+    // digər tz dəyərləri üçün kontekstlər hər çağırışda qurulur ki, müştəri yaddaşı böyüdə bilməsin
+    private static final double CACHED_TZ = 4.0;
+    private static final LocationContext[] CACHED_CITY_CONTEXTS =
+            LocationContext.of(CITY_LATITUDES, CITY_LONGITUDES, CACHED_TZ);
+
+    /**
+     * Dəqiq hesablama. ETag ilə qaytarılan cavablar (/times, /calendar, ixrac, snapshot) yalnız bunu
+     * istifadə edir ki, eyni şəhər və tarix üçün dəqiqə sərhədi endpointlər arasında fərqlənməsin.
+     */
     public PrayerTimesDto calculate(LocalDate date,
                                     double lat,
                                     double lng,
                                     double tz,
                                     String method) {
 
-        String usedMethod = (method == null || method.isBlank()) ? "MWL" : method.trim();
+        checkTz(tz);
+        MethodProfile profile = MethodProfiles.resolve(method);
+        return calculate(profile, date, LocationContext.of(lat, lng, tz), new double[Prayer.COUNT]);
+    }
+
+    /**
+     * Əvvəlcədən qurulmuş taydan interpolyasiya. Tayl yoxdursa boş qaytarılır, tayl heç vaxt burada qurulmur.
+     */
+    public Optional<PrayerTimesDto> interpolate(LocalDate date,
+                                                double lat,
+                                                double lng,
+                                                double tz,
+                                                String method) {
+        checkTz(tz);
+        MethodProfile profile = MethodProfiles.resolve(method);
+        double[] times = new double[Prayer.COUNT];
+        if (!prayerTimeTiles.interpolate(profile, date, lat, lng, tz, times)) {
+            return Optional.empty();
+        }
+        return Optional.of(toDto(profile, date, LocationContext.of(lat, lng, tz), times));
+    }
+
+    /**
+     * {@code from}-dan {@code to}-ya qədər (daxil olmaqla) hər gün üçün vaxtları qaytarır.
+     * Profil bir dəfə seçilir, uzun aralıqlar fork-join pool-da hissələrə bölünür.
+     */
+    public List<PrayerTimesDto> calculateRange(LocalDate from,
+                                               LocalDate to,
+                                               double lat,
+                                               double lng,
+                                               double tz,
+                                               String method) {
+        checkTz(tz);
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days <= 0) {
+            throw new IllegalArgumentException("Başlanğıc tarix son tarixdən sonra ola bilməz");
+        }
+        if (days > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Tarix aralığı " + MAX_RANGE_DAYS + " gündən çox ola bilməz");
+        }
+
+        MethodProfile profile = MethodProfiles.resolve(method);
+        PrayerTimesDto[] result = new PrayerTimesDto[(int) days];
+        RangeTask task = new RangeTask(profile, from, LocationContext.of(lat, lng, tz), result, 0, result.length);
+
+        if (result.length <= RANGE_SPLIT_THRESHOLD) {
+            task.compute();
+        } else {
+            prayerComputePool.invoke(task);
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Verilmiş tarix üçün {@link AzerbaijanCities#CITIES}-dəki bütün şəhərlərin vaxtlarını
+     * bir batch hesablaması ilə qaytarır. Nəticənin sırası CITIES siyahısının sırası ilə eynidir.
+     */
+    public List<PrayerTimesDto> calculateAllCities(LocalDate date, double tz, String method) {
+        checkTz(tz);
+        MethodProfile profile = MethodProfiles.resolve(method);
+        LocationContext[] cities = cityContexts(tz);
+        int count = cities.length;
 
-        PrayerTime engine = new PrayerTime(usedMethod);
+        double[][] out = new double[Prayer.COUNT][count];
+        engine.computeBatch(profile, date, cities, out);
 
+        List<PrayerTimesDto> result = new ArrayList<>(count);
+        double[] times = new double[Prayer.COUNT];
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < Prayer.COUNT; k++) {
+                times[k] = out[k][i];
+            }
+            result.add(toDto(profile, date, cities[i], times));
+        }
+        return result;
+    }
 
-        Map<String, String> raw = engine.getPrayerTimes(date, lat, lng, tz);
+    /**
+     * Aralığın hər günü üçün vaxtları ardıcıl hesablayıb {@code sink}-ə ötürür.
+     * Heç bir siyahı qurulmur, yaddaş istifadəsi aralığın uzunluğundan asılı deyil.
+     */
+    public void streamRange(LocalDate from,
+                            LocalDate to,
+                            double lat,
+                            double lng,
+                            double tz,
+                            String method,
+                            PrayerTimesSink sink) throws IOException {
+        checkTz(tz);
+        MethodProfile profile = MethodProfiles.resolve(method);
+        LocationContext location = LocationContext.of(lat, lng, tz);
+        double[] times = new double[Prayer.COUNT];
+        int[] seconds = new int[Prayer.COUNT];
 
-        Map<String, String> fullTimes = new LinkedHashMap<>();
-        for (var e : raw.entrySet()) {
-            fullTimes.put(e.getKey(), normalizeToHHmmss(e.getValue()));
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            engine.computeTimes(profile, date, location, times);
+            sink.accept(date, 0, engine.toSecondsOfDay(times, seconds));
         }
+    }
 
-        String imsak = normalizeToHHmmss(fullTimes.getOrDefault("İmsak", "-----"));
-        String iftar = normalizeToHHmmss(fullTimes.getOrDefault("Məğrib", "-----"));
+    /**
+     * {@link #streamRange} kimi, amma hər gün bütün şəhərlər bir batch ilə hesablanır.
+     * Bir gün daxilində sətirlər CITIES sırası ilədir.
+     */
+    public void streamRangeAllCities(LocalDate from,
+                                     LocalDate to,
+                                     double tz,
+                                     String method,
+                                     PrayerTimesSink sink) throws IOException {
+        checkTz(tz);
+        MethodProfile profile = MethodProfiles.resolve(method);
+        LocationContext[] cities = cityContexts(tz);
+        int count = cities.length;
+        double[][] out = new double[Prayer.COUNT][count];
+        double[] times = new double[Prayer.COUNT];
+        int[] seconds = new int[Prayer.COUNT];
 
-        return new PrayerTimesDto(date, lat, lng, tz, usedMethod, imsak, iftar, fullTimes);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            engine.computeBatch(profile, date, cities, out);
+            for (int i = 0; i < count; i++) {
+                for (int k = 0; k < Prayer.COUNT; k++) {
+                    times[k] = out[k][i];
+                }
+                sink.accept(date, i, engine.toSecondsOfDay(times, seconds));
+            }
+        }
     }
 
-    private String normalizeToHHmmss(String time) {
-        if (time == null) return "-----";
-        String t = time.trim();
-        if (t.equals("-----")) return t;
+    private static LocationContext[] cityContexts(double tz) {
+        return tz == CACHED_TZ ? CACHED_CITY_CONTEXTS : LocationContext.of(CITY_LATITUDES, CITY_LONGITUDES, tz);
+    }
 
-        if (t.matches("^\\d{2}:\\d{2}:\\d{2}$")) return t;
+    public static void checkTz(double tz) {
+        if (!(tz >= MIN_TZ && tz <= MAX_TZ)) {
+            throw new IllegalArgumentException("tz " + (int) MIN_TZ + " ilə " + (int) MAX_TZ + " arasında olmalıdır");
+        }
+    }
 
-        if (t.matches("^\\d{2}:\\d{2}$")) return t + ":00";
+    private PrayerTimesDto calculate(MethodProfile profile,
+                                     LocalDate date,
+                                     LocationContext location,
+                                     double[] scratch) {
 
-        return t;
+        engine.computeTimes(profile, date, location, scratch);
+        return toDto(profile, date, location, scratch);
+    }
+
+    private PrayerTimesDto toDto(MethodProfile profile,
+                                 LocalDate date,
+                                 LocationContext location,
+                                 double[] times) {
+
+        int[] seconds = engine.toSecondsOfDay(times, new int[Prayer.COUNT]);
+        return new PrayerTimesDto(date, location.getLatitude(), location.getLongitude(), location.getTimeZone(),
+                profile.getMethod().name(), seconds);
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private final MethodProfile profile;
+        private final LocalDate from;
+        private final LocationContext location;
+        private final PrayerTimesDto[] result;
+        private final int start;
+        private final int end;
+
+        private RangeTask(MethodProfile profile, LocalDate from, LocationContext location,
+                          PrayerTimesDto[] result, int start, int end) {
+            this.profile = profile;
+            this.from = from;
+            this.location = location;
+            this.result = result;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= RANGE_SPLIT_THRESHOLD) {
+                double[] scratch = new double[Prayer.COUNT];
+                for (int i = start; i < end; i++) {
+                    result[i] = calculate(profile, from.plusDays(i), location, scratch);
+                }
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(
+                    new RangeTask(profile, from, location, result, start, mid),
+                    new RangeTask(profile, from, location, result, mid, end)
+            );
+        }
     }
 }
@@ -0,0 +1,210 @@
+package com.example.ramazan.calculation.service;
+
+import com.example.ramazan.calculation.engine.MethodProfile;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.enums.CalculationMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Azərbaycanın sərhəd düzbucaqlısı üzərində {@code stepDeg} addımlı şəbəkənin vaxtlarını (tarix, metod, tz)
+ * üçün bir dəfə hesablayır və istənilən koordinatı bilinear interpolyasiya ilə cavablayır.
+ * <p>
+ * Hər tayl qurulanda bütün xanaların mərkəzində dəqiq {@link PrayerTime} nəticəsi ilə müqayisə olunur.
+ * Bilinear interpolyasiyanın xətası xananın mərkəzində ən böyük olduğundan bu, tayl üçün ölçülmüş
+ * maksimum xətadır; o {@code maxErrorSeconds}-dan böyükdürsə tayl istifadə olunmur və sorğu dəqiq hesablanır.
+ * <p>
+ * Taylar yalnız sabit çoxluq üçün — Bakı saat qurşağı ({@link #TILE_TZ}), bütün metodlar və bu gündən
+ * {@code daysAhead} gün irəli — fon rejimində qurulur. Sorğu zamanı heç vaxt tayl qurulmur: çoxluqdan kənar
+ * açarlar və hələ qurulmamış taylar dəqiq hesablamaya düşür.
+ */
+@Service
+@Slf4j
+public class PrayerTimeTiles {
+
+    public static final double MIN_LAT = 38.3;
+    public static final double MAX_LAT = 42.0;
+    public static final double MIN_LNG = 44.7;
+    public static final double MAX_LNG = 50.7;
+    public static final double TILE_TZ = 4.0;
+
+    private static final CalculationMethod[] METHODS = CalculationMethod.values();
+
+    private final PrayerTime engine;
+    private final boolean enabled;
+    private final double stepDeg;
+    private final double maxErrorSeconds;
+    private final int daysAhead;
+    private final int rows;
+    private final int cols;
+
+    // Şəbəkə düyünləri və xana mərkəzləri structure-of-arrays şəklində, bütün taylar üçün eynidir
+    private final double[] nodeLats;
+    private final double[] nodeLngs;
+    private final double[] centerLats;
+    private final double[] centerLngs;
+
+    // Qurulmuş taylar; refresh yeni xəritəni tam qurub bir dəfəyə əvəz edir
+    private volatile Map<Key, Tile> tiles = Map.of();
+
+    public PrayerTimeTiles(PrayerTime engine,
+                           @Value("${prayer.tiles.enabled:true}") boolean enabled,
+                           @Value("${prayer.tiles.step-deg:0.1}") double stepDeg,
+                           @Value("${prayer.tiles.max-error-seconds:1.0}") double maxErrorSeconds,
+                           @Value("${prayer.tiles.days-ahead:1}") int daysAhead) {
+        if (!(stepDeg > 0) || stepDeg > 1) {
+            throw new IllegalArgumentException("prayer.tiles.step-deg 0 ilə 1 arasında olmalıdır");
+        }
+        if (daysAhead < 0 || daysAhead > 30) {
+            throw new IllegalArgumentException("prayer.tiles.days-ahead 0 ilə 30 arasında olmalıdır");
+        }
+        this.engine = engine;
+        this.enabled = enabled;
+        this.stepDeg = stepDeg;
+        this.maxErrorSeconds = maxErrorSeconds;
+        this.daysAhead = daysAhead;
+        this.rows = (int) Math.ceil((MAX_LAT - MIN_LAT) / stepDeg) + 1;
+        this.cols = (int) Math.ceil((MAX_LNG - MIN_LNG) / stepDeg) + 1;
+
+        this.nodeLats = new double[rows * cols];
+        this.nodeLngs = new double[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                nodeLats[r * cols + c] = MIN_LAT + r * stepDeg;
+                nodeLngs[r * cols + c] = MIN_LNG + c * stepDeg;
+            }
+        }
+
+        int cells = (rows - 1) * (cols - 1);
+        this.centerLats = new double[cells];
+        this.centerLngs = new double[cells];
+        for (int r = 0; r < rows - 1; r++) {
+            for (int c = 0; c < cols - 1; c++) {
+                centerLats[r * (cols - 1) + c] = MIN_LAT + (r + 0.5) * stepDeg;
+                centerLngs[r * (cols - 1) + c] = MIN_LNG + (c + 0.5) * stepDeg;
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    @Scheduled(cron = "${prayer.tiles.cron:0 0 0 * * *}", zone = "Asia/Baku")
+    public void refresh() {
+        refresh(LocalDate.now(TimeConfig.zoneId));
+    }
+
+    /**
+     * {@code from}-dan {@code daysAhead} gün irəliyə qədər bütün metodların taylarını qurur.
+     * Artıq qurulmuş taylar saxlanılır, çoxluqdan çıxanlar atılır.
+     */
+    public synchronized void refresh(LocalDate from) {
+        if (!enabled) return;
+
+        long started = System.nanoTime();
+        Map<Key, Tile> current = tiles;
+        Map<Key, Tile> next = new HashMap<>();
+        for (int d = 0; d <= daysAhead; d++) {
+            LocalDate date = from.plusDays(d);
+            for (CalculationMethod method : METHODS) {
+                Key key = new Key(date, method);
+                Tile tile = current.get(key);
+                next.put(key, tile != null ? tile : build(MethodProfiles.get(method), date));
+            }
+        }
+        tiles = Map.copyOf(next);
+        log.info("Taylar qurulub: {}..{}, {} tayl, {} ms", from, from.plusDays(daysAhead), next.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean covers(double lat, double lng) {
+        return lat >= MIN_LAT && lat <= MAX_LAT && lng >= MIN_LNG && lng <= MAX_LNG;
+    }
+
+    /**
+     * Koordinat üçün vaxtları {@code times} massivinə interpolyasiya edir.
+     *
+     * @return {@code false} — tayl rejimi söndürülüb, koordinat düzbucaqlıdan kənardadır, açar üçün tayl
+     * qurulmayıb və ya taylın ölçülmüş xətası icazə veriləndən böyükdür; bu halda çağıran dəqiq hesablamalıdır
+     */
+    public boolean interpolate(MethodProfile profile, LocalDate date,
+                               double lat, double lng, double tz, double[] times) {
+        if (!enabled || tz != TILE_TZ || !covers(lat, lng)) return false;
+
+        Tile tile = tiles.get(new Key(date, profile.getMethod()));
+        if (tile == null || !tile.usable()) return false;
+
+        double y = (lat - MIN_LAT) / stepDeg;
+        double x = (lng - MIN_LNG) / stepDeg;
+        int r = Math.min((int) y, rows - 2);
+        int c = Math.min((int) x, cols - 2);
+        interpolate(tile.times(), r * cols + c, cols, y - r, x - c, times);
+        return true;
+    }
+
+    private Tile build(MethodProfile profile, LocalDate date) {
+        double[][] nodes = new double[Prayer.COUNT][nodeLats.length];
+        engine.computeBatch(profile, date, nodeLats, nodeLngs, TILE_TZ, nodes);
+
+        double[][] exact = new double[Prayer.COUNT][centerLats.length];
+        engine.computeBatch(profile, date, centerLats, centerLngs, TILE_TZ, exact);
+
+        double maxError = 0;
+        double[] interpolated = new double[Prayer.COUNT];
+        for (int r = 0; r < rows - 1; r++) {
+            for (int c = 0; c < cols - 1; c++) {
+                int cell = r * (cols - 1) + c;
+                interpolate(nodes, r * cols + c, cols, 0.5, 0.5, interpolated);
+                for (int k = 0; k < Prayer.COUNT; k++) {
+                    double error = Math.abs(interpolated[k] - exact[k][cell]);
+                    // NaN olan vaxtlar interpolyasiya oluna bilməz
+                    maxError = Math.max(maxError, Double.isNaN(error) ? Double.POSITIVE_INFINITY : error);
+                }
+            }
+        }
+
+        double maxErrorSec = maxError * 3600;
+        boolean usable = maxErrorSec <= maxErrorSeconds;
+        if (usable) {
+            log.debug("Tile {} {} qurulub, maksimum xəta {} san", date, profile.getMethod(), maxErrorSec);
+        } else {
+            log.warn("Tile {} {} rədd edildi: xəta {} san > {} san",
+                    date, profile.getMethod(), maxErrorSec, maxErrorSeconds);
+        }
+        return new Tile(nodes, maxErrorSec, usable);
+    }
+
+    private static void interpolate(double[][] nodes, int index, int cols, double ty, double tx, double[] out) {
+        for (int k = 0; k < Prayer.COUNT; k++) {
+            double[] row = nodes[k];
+            double v00 = row[index];
+            double v01 = row[index + 1];
+            double v10 = row[index + cols];
+            double v11 = row[index + cols + 1];
+            double bottom = v00 + (v01 - v00) * tx;
+            double top = v10 + (v11 - v10) * tx;
+            out[k] = bottom + (top - bottom) * ty;
+        }
+    }
+
+    private record Key(LocalDate date, CalculationMethod method) {
+    }
+
+    private record Tile(double[][] times, double maxErrorSeconds, boolean usable) {
+    }
+}
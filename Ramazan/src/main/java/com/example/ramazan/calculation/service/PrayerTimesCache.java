@@ -0,0 +1,100 @@
+package com.example.ramazan.calculation.service;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * {@link PrayerCalculationService} qarşısında məhdud ölçülü keş. Koordinatlar {@code gridDeg} addımlı
+ * şəbəkəyə yuvarlaqlaşdırılır ki, eyni məhəllədən gələn GPS sorğuları bir açara düşsün.
+ * <p>
+ * Vaxtın koordinata həssaslığı: uzunluq üzrə dəqiq 4 dəq/°, en üzrə Azərbaycan ərazisində ən çox
+ * ~10.1 dəq/° (Egypt imsakı, iyun, 41.8°N). Yuvarlaqlaşdırma xətası hər oxda {@code gridDeg / 2}
+ * olduğundan ən pis halda {@code (10.1 + 4) * gridDeg / 2 ≈ 7 * gridDeg} dəqiqədir; standart 0.01°
+ * üçün bu ~4 saniyə, icazə verilən maksimum 0.1° üçün ~42 saniyədir, yəni heç vaxt tam dəqiqə deyil.
+ */
+@Service
+@Slf4j
+public class PrayerTimesCache {
+
+    public static final double MAX_GRID_DEG = 0.1;
+
+    private final PrayerCalculationService prayerCalculationService;
+    @Getter
+    private final double gridDeg;
+    private final Cache<Key, PrayerTimesDto> cache;
+
+    public PrayerTimesCache(PrayerCalculationService prayerCalculationService,
+                            @Value("${prayer.cache.grid-deg:0.01}") double gridDeg,
+                            @Value("${prayer.cache.max-size:50000}") long maxSize,
+                            @Value("${prayer.cache.ttl:PT6H}") Duration ttl) {
+        if (!(gridDeg > 0) || gridDeg > MAX_GRID_DEG) {
+            throw new IllegalArgumentException("prayer.cache.grid-deg 0 ilə " + MAX_GRID_DEG + " arasında olmalıdır");
+        }
+        this.prayerCalculationService = prayerCalculationService;
+        this.gridDeg = gridDeg;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.info("Prayer times cache: grid={}°, maxSize={}, ttl={}", gridDeg, maxSize, ttl);
+    }
+
+    public PrayerTimesDto calculate(LocalDate date,
+                                    double lat,
+                                    double lng,
+                                    double tz,
+                                    String method) {
+
+        long latCell = Math.round(lat / gridDeg);
+        long lngCell = Math.round(lng / gridDeg);
+        String methodKey = MethodProfiles.resolve(method).getMethod().name();
+
+        PrayerTimesDto cached = cache.get(new Key(date, latCell, lngCell, tz, methodKey),
+                key -> prayerCalculationService.calculate(
+                        date,
+                        latCell * gridDeg,
+                        lngCell * gridDeg,
+                        tz,
+                        methodKey
+                ));
+
+        // Vaxtlar şəbəkə nöqtəsi üçündür, koordinatlar isə sorğudakı kimi qaytarılır
+        return new PrayerTimesDto(
+                cached.date(),
+                lat,
+                lng,
+                cached.tz(),
+                cached.method(),
+                cached.times()
+        );
+    }
+
+    /**
+     * Koordinatı keşin şəbəkəsinə yuvarlaqlaşdırır; eyni xanaya düşən sorğular eyni nəticəni alır.
+     */
+    public double snap(double deg) {
+        return Math.round(deg / gridDeg) * gridDeg;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record Key(LocalDate date, long latCell, long lngCell, double tz, String method) {
+    }
+}
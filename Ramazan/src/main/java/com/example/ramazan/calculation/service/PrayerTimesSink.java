@@ -0,0 +1,18 @@
+package com.example.ramazan.calculation.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Hesablanan hər sətri yaddaşda toplamadan qəbul edir. {@code times} massivi növbəti çağırışda
+ * yenidən istifadə olunur, ona görə saxlanılmamalıdır.
+ */
+@FunctionalInterface
+public interface PrayerTimesSink {
+
+    /**
+     * @param location {@code AzerbaijanCities.CITIES} indeksi; tək məkan üçün həmişə 0
+     * @param times    günün saniyəsi, {@code Prayer.ordinal()} sırası ilə; -1 = hesablanmayıb
+     */
+    void accept(LocalDate date, int location, int[] times) throws IOException;
+}
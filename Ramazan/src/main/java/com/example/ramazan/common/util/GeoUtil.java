@@ -3,6 +3,31 @@ package com.example.ramazan.common.util;
 public final class GeoUtil {
     private GeoUtil() {}
 
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    /**
+     * Mərkəzdən radiusKm məsafədəki bütün nöqtələri əhatə edən enlik/uzunluq qutusu:
+     * {minLat, maxLat, minLng, maxLng}. Qütbə və ya 180° meridianına çatanda uzunluq tam götürülür.
+     */
+    public static double[] boundingBox(double lat, double lng, double radiusKm) {
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double dLat = Math.toDegrees(angular);
+        double minLat = lat - dLat;
+        double maxLat = lat + dLat;
+
+        if (minLat <= -90 || maxLat >= 90) {
+            return new double[]{Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180};
+        }
+
+        double dLng = Math.toDegrees(Math.asin(Math.min(1, Math.sin(angular) / Math.cos(Math.toRadians(lat)))));
+        double minLng = lng - dLng;
+        double maxLng = lng + dLng;
+        if (minLng < -180 || maxLng > 180) {
+            return new double[]{minLat, maxLat, -180, 180};
+        }
+        return new double[]{minLat, maxLat, minLng, maxLng};
+    }
+
     public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
         double dLat = Math.toRadians(lat2 - lat1);
         double dLon = Math.toRadians(lon2 - lon1);
@@ -11,6 +36,6 @@ public final class GeoUtil {
                 * Math.sin(dLon / 2) * Math.sin(dLon / 2);
 
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return 6371.0 * c;
+        return EARTH_RADIUS_KM * c;
     }
 }
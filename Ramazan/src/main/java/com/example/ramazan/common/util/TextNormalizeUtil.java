@@ -2,13 +2,109 @@ package com.example.ramazan.common.util;
 
 import java.text.Normalizer;
 
+/**
+ * Axtarış açarları üçün mətn qatlama: kənar boşluqlar atılır, hərflər kiçildilir, diakritik işarələr
+ * silinir və Azərbaycan/türk hərfləri latın əsasına gətirilir (ə→e, ı→i, ş→s, ç→c, ğ→g, ö→o, ü→u).
+ * İngilis transliterasiyasındakı sh, ch, gh, kh birləşmələri də s, c, g, x-ə qatlanır, beləliklə
+ * "Sheki", "Seki" və "Şəki" eyni açarı verir.
+ * <p>
+ * Qatlama cədvəl üzrə bir keçidlə, təkrar istifadə olunan bufer üzərində aparılır. Dəyişiklik yoxdursa
+ * giriş sətri özü qaytarılır, son nəticələr isə kiçik keşdə saxlanılır ki, təkrar sorğular yeni sətir yaratmasın.
+ */
 public final class TextNormalizeUtil {
     private TextNormalizeUtil() {}
 
+    // Cədvəldən kənar simvollar yalnız kiçildilir
+    private static final int TABLE_SIZE = 0x2000;
+    // Simvol atılır (birləşdirici işarə)
+    private static final char DROP = '\uFFFF';
+    private static final char[] FOLD = buildTable();
+
+    private static final String AZ_FROM = "ƏəIıİiŞşÇçĞğÖöÜü";
+    private static final String AZ_TO   = "eeiiiissccggoouu";
+
+    private static final int CACHE_SIZE = 1024;
+    private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+
     public static String normalize(String text) {
         if (text == null) return "";
-        return Normalizer.normalize(text.trim(), Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "")
-                .toLowerCase();
+
+        int slot = text.hashCode() & (CACHE_SIZE - 1);
+        Entry cached = CACHE[slot];
+        if (cached != null && cached.text.equals(text)) return cached.folded;
+
+        String folded = fold(text);
+        CACHE[slot] = new Entry(text, folded);
+        return folded;
+    }
+
+    private static String fold(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+        char[] buffer = BUFFER.get();
+        if (buffer.length < end - start) {
+            buffer = new char[Math.max(end - start, buffer.length * 2)];
+            BUFFER.set(buffer);
+        }
+
+        int length = 0;
+        boolean changed = start != 0 || end != text.length();
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            char f;
+            if (c < TABLE_SIZE) {
+                f = FOLD[c];
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                f = DROP;
+            } else {
+                f = Character.toLowerCase(c);
+            }
+
+            if (f != c) changed = true;
+            if (f == DROP) continue;
+
+            if (f == 'h' && length > 0) {
+                char previous = buffer[length - 1];
+                if (previous == 's' || previous == 'c' || previous == 'g') {
+                    changed = true;
+                    continue;
+                }
+                if (previous == 'k') {
+                    buffer[length - 1] = 'x';
+                    changed = true;
+                    continue;
+                }
+            }
+            buffer[length++] = f;
+        }
+        return changed ? new String(buffer, 0, length) : text;
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[TABLE_SIZE];
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                table[c] = DROP;
+                continue;
+            }
+            String base = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase();
+            table[c] = base.length() == 1 ? base.charAt(0) : Character.toLowerCase((char) c);
+        }
+
+        // İşarəsiz hərflər NFD ilə ayrılmır, ona görə açıq cədvəl
+        for (int i = 0; i < AZ_FROM.length(); i++) {
+            table[AZ_FROM.charAt(i)] = AZ_TO.charAt(i);
+        }
+        return table;
+    }
+
+    private record Entry(String text, String folded) {
     }
 }
@@ -0,0 +1,56 @@
+package com.example.ramazan.common.util;
+
+/**
+ * Günün saniyəsini mətnə çevirir. Namaz vaxtları dəqiqəyə yuvarlaqlaşdırıldığından bütün dəqiqələrin
+ * mətnləri əvvəlcədən hazırlanır; mənfi dəyər vaxtın hesablanmadığını bildirir.
+ */
+public final class TimeText {
+
+    public static final int MISSING = -1;
+    public static final String MISSING_TEXT = "-----";
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int SECONDS_PER_DAY = MINUTES_PER_DAY * 60;
+
+    private static final String[] HH_MM = new String[MINUTES_PER_DAY];
+    private static final String[] HH_MM_SS = new String[MINUTES_PER_DAY];
+
+    static {
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            HH_MM[minute] = build(minute * 60, false);
+            HH_MM_SS[minute] = build(minute * 60, true);
+        }
+    }
+
+    private TimeText() {}
+
+    public static String hhmmss(int secondOfDay) {
+        if (secondOfDay < 0) return MISSING_TEXT;
+        int second = secondOfDay % SECONDS_PER_DAY;
+        // DB-dən gələn vaxtlarda saniyə ola bilər, onlar cədvəldə yoxdur
+        return second % 60 == 0 ? HH_MM_SS[second / 60] : build(second, true);
+    }
+
+    public static String hhmm(int secondOfDay) {
+        if (secondOfDay < 0) return MISSING_TEXT;
+        return HH_MM[(secondOfDay % SECONDS_PER_DAY) / 60];
+    }
+
+    private static String build(int secondOfDay, boolean withSeconds) {
+        int h = secondOfDay / 3600;
+        int m = secondOfDay / 60 % 60;
+        int s = secondOfDay % 60;
+        char[] chars = new char[withSeconds ? 8 : 5];
+        chars[0] = (char) ('0' + h / 10);
+        chars[1] = (char) ('0' + h % 10);
+        chars[2] = ':';
+        chars[3] = (char) ('0' + m / 10);
+        chars[4] = (char) ('0' + m % 10);
+        if (withSeconds) {
+            chars[5] = ':';
+            chars[6] = (char) ('0' + s / 10);
+            chars[7] = (char) ('0' + s % 10);
+        }
+        return new String(chars);
+    }
+}
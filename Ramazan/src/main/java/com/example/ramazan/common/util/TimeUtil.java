@@ -15,31 +15,31 @@ public final class TimeUtil {
     }
 
 
+    /**
+     * Vaxtlar günün saniyəsi kimi verilir; nəticə {@link Duration#getSeconds()} kimi aşağı yuvarlaqlaşdırılır.
+     */
     public static long remainingTodayFastingCountdown(
-            LocalTime imsakTime,
-            LocalTime iftarTime
+            int imsakSecond,
+            int iftarSecond
     ) {
 
-        LocalDateTime now = now();
-        LocalDate today = now.toLocalDate();
-
-        LocalDateTime imsakDt = LocalDateTime.of(today, imsakTime);
-        LocalDateTime iftarDt = LocalDateTime.of(today, iftarTime);
+        LocalTime now = now().toLocalTime();
+        long nowSecond = now.toSecondOfDay();
+        // saniyənin kəsr hissəsi qalan vaxtı bir saniyə azaldır
+        long partial = now.getNano() > 0 ? 1 : 0;
 
         // imsakdan əvvəl → imsaka qədər
-        if (now.isBefore(imsakDt)) {
-            return Duration.between(now, imsakDt).getSeconds();
+        if (nowSecond < imsakSecond) {
+            return imsakSecond - nowSecond - partial;
         }
 
         // imsakdan sonra amma iftardan əvvəl → iftara qədər
-        if (now.isBefore(iftarDt)) {
-            return Duration.between(now, iftarDt).getSeconds();
+        if (nowSecond < iftarSecond) {
+            return iftarSecond - nowSecond - partial;
         }
 
         // iftardan sonra → sabahkı imsaka qədər
-        LocalDateTime nextImsak = LocalDateTime.of(today.plusDays(1), imsakTime);
-
-        return Duration.between(now, nextImsak).getSeconds();
+        return 24 * 3600 + imsakSecond - nowSecond - partial;
     }
 
 
@@ -0,0 +1,32 @@
+package com.example.ramazan.config;
+
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.calculation.engine.SolarEphemeris;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class CalculationConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool prayerComputePool(
+            @Value("${prayer.compute.parallelism:0}") int parallelism) {
+        int used = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(used);
+    }
+
+    @Bean
+    public SolarEphemeris solarEphemeris(
+            @Value("${prayer.ephemeris.from-year:2000}") int fromYear,
+            @Value("${prayer.ephemeris.to-year:2100}") int toYear) {
+        return new SolarEphemeris(fromYear, toYear);
+    }
+
+    @Bean
+    public PrayerTime prayerTimeEngine(SolarEphemeris solarEphemeris) {
+        return new PrayerTime(solarEphemeris);
+    }
+}
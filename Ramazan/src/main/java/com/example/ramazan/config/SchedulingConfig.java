@@ -0,0 +1,11 @@
+package com.example.ramazan.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,28 @@
+package com.example.ramazan.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    ICS("text/calendar;charset=UTF-8", "ics"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    public static ExportFormat fromString(String format) {
+        if (format == null || format.isBlank()) {
+            return CSV;
+        }
+
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Naməlum format: '" + format +
+                    "'. İcazə verilən dəyərlər: csv, ics, ndjson");
+        }
+    }
+}
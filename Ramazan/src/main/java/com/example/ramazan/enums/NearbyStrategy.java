@@ -0,0 +1,26 @@
+package com.example.ramazan.enums;
+
+/**
+ * Yaxın restoranların axtarış üsulu ({@code restaurant.nearby.strategy}).
+ */
+public enum NearbyStrategy {
+    // Tətbiqin yaddaşındakı tor indeksi, bir node üçün ən sürətli
+    MEMORY,
+    // MySQL 8 SPATIAL INDEX və ST_Distance_Sphere, bir neçə node yaddaşda indeks saxlaya bilməyəndə
+    SPATIAL,
+    // (latitude, longitude) indeksi üzrə qutu sorğusu
+    QUERY;
+
+    public static NearbyStrategy fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return MEMORY;
+        }
+
+        try {
+            return NearbyStrategy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Naməlum restaurant.nearby.strategy: '" + value +
+                    "'. İcazə verilən dəyərlər: memory, spatial, query");
+        }
+    }
+}
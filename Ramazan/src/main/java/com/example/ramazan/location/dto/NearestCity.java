@@ -0,0 +1,8 @@
+package com.example.ramazan.location.dto;
+
+public record NearestCity(
+        String cityName,
+        double latitude,
+        double longitude,
+        double distanceKm
+) {}
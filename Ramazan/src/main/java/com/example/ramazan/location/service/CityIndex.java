@@ -0,0 +1,259 @@
+package com.example.ramazan.location.service;
+
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.common.util.GeoUtil;
+import com.example.ramazan.location.dto.NearestCity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Şəhərlər üçün sabit ölçülü tor (grid bucket) indeksi. Sorğu nöqtəsinin xanasından başlayaraq halqa-halqa
+ * genişlənir, namizədlər əvvəlcə ucuz ekvirektanqulyar məsafə ilə süzülür və dəqiq haversine yalnız ən
+ * yaxın bir neçə namizəd üçün hesablanır. Növbəti halqadakı istənilən nöqtə üçün məsafənin aşağı sərhədi
+ * tapılmış k-cı məsafədən böyük olanda axtarış dayanır, ona görə nəticə tam siyahı üzrə haversine ilə eynidir.
+ * Şəhərlərin düzbucaqlısından {@link #EXACT_SCAN_MARGIN_DEG}-dən çox uzaq sorğularda yaxınlaşmanın xətası
+ * ehtiyatı keçə bildiyindən bütün şəhərlər haversine ilə yoxlanılır. Dəyişməzdir.
+ */
+public final class CityIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // Ekvirektanqulyar yaxınlaşmanın xətası üçün ehtiyat
+    private static final double APPROX_MARGIN = 0.05;
+    private static final double APPROX_MARGIN_KM = 1.0;
+    // Düzbucaqlıdan bu qədər kənar sorğular tor olmadan dəqiq yoxlanılır
+    private static final double EXACT_SCAN_MARGIN_DEG = 2.0;
+
+    private final List<AzerbaijanCities.City> cities;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+    private final double cellDeg;
+    private final double minLat;
+    private final double minLng;
+    private final double maxLat;
+    private final double maxLng;
+    private final int rows;
+    private final int cols;
+    // Xana -> şəhər indeksləri (CSR): items[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] items;
+    private final double maxAbsLat;
+
+    private CityIndex(List<AzerbaijanCities.City> cities, double cellDeg) {
+        this.cities = List.copyOf(cities);
+        this.cellDeg = cellDeg;
+        int n = this.cities.size();
+        latitudes = new double[n];
+        longitudes = new double[n];
+        cosLatitudes = new double[n];
+
+        double minLatitude = Double.POSITIVE_INFINITY, maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY, maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = this.cities.get(i).latitude();
+            longitudes[i] = this.cities.get(i).longitude();
+            cosLatitudes[i] = Math.cos(Math.toRadians(latitudes[i]));
+            minLatitude = Math.min(minLatitude, latitudes[i]);
+            maxLatitude = Math.max(maxLatitude, latitudes[i]);
+            minLongitude = Math.min(minLongitude, longitudes[i]);
+            maxLongitude = Math.max(maxLongitude, longitudes[i]);
+        }
+
+        minLat = n == 0 ? 0 : minLatitude;
+        minLng = n == 0 ? 0 : minLongitude;
+        maxLat = n == 0 ? 0 : maxLatitude;
+        maxLng = n == 0 ? 0 : maxLongitude;
+        rows = n == 0 ? 1 : (int) Math.floor((maxLatitude - minLat) / cellDeg) + 1;
+        cols = n == 0 ? 1 : (int) Math.floor((maxLongitude - minLng) / cellDeg) + 1;
+        maxAbsLat = n == 0 ? 0 : Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+
+        int[] cellOf = new int[n];
+        cellStart = new int[rows * cols + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = cell(row(latitudes[i]), col(longitudes[i]));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < rows * cols; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        items = new int[n];
+        int[] fill = Arrays.copyOf(cellStart, rows * cols);
+        for (int i = 0; i < n; i++) {
+            items[fill[cellOf[i]]++] = i;
+        }
+    }
+
+    public static CityIndex of(List<AzerbaijanCities.City> cities, double cellDeg) {
+        if (!(cellDeg > 0)) {
+            throw new IllegalArgumentException("Xana ölçüsü müsbət olmalıdır");
+        }
+        return new CityIndex(cities, cellDeg);
+    }
+
+    public int size() {
+        return cities.size();
+    }
+
+    /**
+     * Ən yaxın k şəhər, məsafəyə görə artan sırada.
+     */
+    public List<NearestCity> nearest(double lat, double lng, int k) {
+        int n = cities.size();
+        k = Math.min(k, n);
+        if (k <= 0) return List.of();
+        if (!nearRegion(lat, lng)) return nearestExact(lat, lng, k);
+
+        double cosLat = Math.cos(Math.toRadians(lat));
+        // Halqanın kənarındakı uzunluq fərqi üçün sərhəd bütün enliklərdə etibarlı olmalıdır
+        double cosMax = Math.cos(Math.toRadians(Math.min(90, Math.max(Math.abs(lat), maxAbsLat))));
+        int qr = Math.min(Math.max(row(lat), 0), rows - 1);
+        int qc = Math.min(Math.max(col(lng), 0), cols - 1);
+
+        // Namizəd massivləri tapıldıqca böyüyür; adətən bir-iki halqada dayanılır
+        int[] candidates = new int[Math.min(n, Math.max(16, 4 * k))];
+        double[] approx = new double[candidates.length];
+        // Ekvirektanqulyar məsafəyə görə ən kiçik k dəyər, artan sırada
+        double[] kBest = new double[k];
+        Arrays.fill(kBest, Double.POSITIVE_INFINITY);
+        int count = 0;
+        int maxRing = Math.max(rows, cols);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = qr - ring; r <= qr + ring; r++) {
+                if (r < 0 || r >= rows) continue;
+                boolean edgeRow = r == qr - ring || r == qr + ring;
+                for (int c = qc - ring; c <= qc + ring; c++) {
+                    if (c < 0 || c >= cols) continue;
+                    if (!edgeRow && c != qc - ring && c != qc + ring) continue;
+
+                    int cell = cell(r, c);
+                    for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                        int i = items[p];
+                        if (count == candidates.length) {
+                            int size = Math.min(n, 2 * count);
+                            candidates = Arrays.copyOf(candidates, size);
+                            approx = Arrays.copyOf(approx, size);
+                        }
+                        candidates[count] = i;
+                        approx[count] = equirectangularKm(lat, lng, cosLat, latitudes[i], longitudes[i], cosLatitudes[i]);
+                        insert(kBest, approx[count]);
+                        count++;
+                    }
+                }
+            }
+
+            if (count == n) break;
+            if (count < k) continue;
+
+            // Dəqiq seçim yalnız dayanmaq ehtimalı olanda edilir, əks halda növbəti halqaya keçilir
+            double lowerBound = lowerBoundKm(lat, lng, qr, qc, ring, cosMax);
+            if (kBest[k - 1] / (1 + APPROX_MARGIN) - APPROX_MARGIN_KM > lowerBound) continue;
+
+            List<NearestCity> best = select(lat, lng, candidates, approx, count, kBest[k - 1], k);
+            if (best.get(k - 1).distanceKm() <= lowerBound) {
+                return best;
+            }
+        }
+        return select(lat, lng, candidates, approx, count, kBest[k - 1], k);
+    }
+
+    // Ekvirektanqulyar məsafəsi k-cı ən kiçik dəyərə (kth) yaxın olan namizədlər üçün haversine
+    private List<NearestCity> select(double lat, double lng, int[] candidates, double[] approx,
+                                     int count, double kth, int k) {
+        double threshold = kth * (1 + APPROX_MARGIN) + APPROX_MARGIN_KM;
+        List<NearestCity> exact = new ArrayList<>();
+        for (int j = 0; j < count; j++) {
+            if (approx[j] > threshold) continue;
+            AzerbaijanCities.City city = cities.get(candidates[j]);
+            exact.add(new NearestCity(city.name(), city.latitude(), city.longitude(),
+                    GeoUtil.haversineKm(lat, lng, city.latitude(), city.longitude())));
+        }
+        exact.sort((a, b) -> Double.compare(a.distanceKm(), b.distanceKm()));
+        return List.copyOf(exact.subList(0, k));
+    }
+
+    private boolean nearRegion(double lat, double lng) {
+        return lat >= minLat - EXACT_SCAN_MARGIN_DEG && lat <= maxLat + EXACT_SCAN_MARGIN_DEG
+                && lng >= minLng - EXACT_SCAN_MARGIN_DEG && lng <= maxLng + EXACT_SCAN_MARGIN_DEG;
+    }
+
+    // Bütün şəhərlər üzrə haversine, ən yaxın k-sı daxiletmə ilə seçilir; bərabər məsafədə siyahı sırası saxlanılır
+    private List<NearestCity> nearestExact(double lat, double lng, int k) {
+        double[] bestDistances = new double[k];
+        int[] bestCities = new int[k];
+        Arrays.fill(bestDistances, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < cities.size(); i++) {
+            double distance = GeoUtil.haversineKm(lat, lng, latitudes[i], longitudes[i]);
+            int j = k - 1;
+            if (distance >= bestDistances[j]) continue;
+            while (j > 0 && bestDistances[j - 1] > distance) {
+                bestDistances[j] = bestDistances[j - 1];
+                bestCities[j] = bestCities[j - 1];
+                j--;
+            }
+            bestDistances[j] = distance;
+            bestCities[j] = i;
+        }
+
+        List<NearestCity> result = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) {
+            AzerbaijanCities.City city = cities.get(bestCities[j]);
+            result.add(new NearestCity(city.name(), city.latitude(), city.longitude(), bestDistances[j]));
+        }
+        return List.copyOf(result);
+    }
+
+    // Baxılmış (2·ring+1)² blokdan kənardakı istənilən nöqtəyə qədər məsafənin aşağı sərhədi
+    private double lowerBoundKm(double lat, double lng, int qr, int qc, int ring, double cosMax) {
+        double latGap = Math.min(
+                qr - ring <= 0 ? Double.POSITIVE_INFINITY : lat - (minLat + (qr - ring) * cellDeg),
+                qr + ring >= rows - 1 ? Double.POSITIVE_INFINITY : minLat + (qr + ring + 1) * cellDeg - lat);
+        double lngGap = Math.min(
+                qc - ring <= 0 ? Double.POSITIVE_INFINITY : lng - (minLng + (qc - ring) * cellDeg),
+                qc + ring >= cols - 1 ? Double.POSITIVE_INFINITY : minLng + (qc + ring + 1) * cellDeg - lng);
+        latGap = Math.max(latGap, 0);
+        lngGap = Math.max(lngGap, 0);
+
+        double byLat = EARTH_RADIUS_KM * Math.toRadians(latGap);
+        double byLng = Double.isInfinite(lngGap) || lngGap >= 180
+                ? Double.POSITIVE_INFINITY
+                : 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, cosMax * Math.sin(Math.toRadians(lngGap) / 2)));
+        return Math.min(byLat, byLng);
+    }
+
+    private static void insert(double[] sorted, double value) {
+        int j = sorted.length - 1;
+        if (value >= sorted[j]) return;
+        while (j > 0 && sorted[j - 1] > value) {
+            sorted[j] = sorted[j - 1];
+            j--;
+        }
+        sorted[j] = value;
+    }
+
+    // Orta enliyin kosinusu iki ucun kosinuslarının ortası ilə əvəz olunur, sorğu başına bir cos kifayətdir
+    private static double equirectangularKm(double lat1, double lng1, double cosLat1,
+                                            double lat2, double lng2, double cosLat2) {
+        double dLng = lng2 - lng1;
+        // Uzunluq fərqi [-180°, 180°] aralığına gətirilir
+        if (dLng > 180) dLng -= 360;
+        else if (dLng < -180) dLng += 360;
+        double x = Math.toRadians(dLng) * (cosLat1 + cosLat2) / 2;
+        double y = Math.toRadians(lat2 - lat1);
+        return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor((lat - minLat) / cellDeg);
+    }
+
+    private int col(double lng) {
+        return (int) Math.floor((lng - minLng) / cellDeg);
+    }
+
+    private int cell(int row, int col) {
+        return row * cols + col;
+    }
+}
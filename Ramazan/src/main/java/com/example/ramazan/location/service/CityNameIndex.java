@@ -0,0 +1,107 @@
+package com.example.ramazan.location.service;
+
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.common.util.TextNormalizeUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Şəhər adları üçün başlanğıcda qurulan indeks: normallaşdırılmış ad → şəhər xəritəsi və prefiks trie.
+ * Trie-nin hər düyünündə həmin prefikslə başlayan şəhərlər artıq sıralanmış saxlanılır, ona görə
+ * sorğu zamanı yalnız sorğunun özü normallaşdırılır və nəticə düyündən birbaşa götürülür. Dəyişməzdir.
+ */
+public final class CityNameIndex {
+
+    private final List<AzerbaijanCities.City> cities;
+    private final Map<String, AzerbaijanCities.City> byName;
+    private final Node root;
+
+    private CityNameIndex(List<AzerbaijanCities.City> cities) {
+        this.cities = List.copyOf(cities);
+        this.byName = new HashMap<>();
+
+        String[] names = new String[this.cities.size()];
+        BuildNode builder = new BuildNode();
+        for (int i = 0; i < names.length; i++) {
+            names[i] = TextNormalizeUtil.normalize(this.cities.get(i).name());
+            byName.putIfAbsent(names[i], this.cities.get(i));
+
+            // Çoxsözlü adlar hər sözün başından da tapılsın, amma adın başından uyğunluq daha yuxarıda olur
+            for (int start = 0; start < names[i].length(); start++) {
+                if (start > 0 && Character.isLetterOrDigit(names[i].charAt(start - 1))) continue;
+                builder.insert(names[i], start, i, start == 0 ? 0 : 1);
+            }
+        }
+
+        Comparator<Match> order = Comparator.comparingInt(Match::rank)
+                .thenComparingInt(m -> names[m.city()].length())
+                .thenComparing(m -> names[m.city()]);
+        this.root = builder.freeze(order);
+    }
+
+    public static CityNameIndex of(List<AzerbaijanCities.City> cities) {
+        return new CityNameIndex(cities);
+    }
+
+    public AzerbaijanCities.City find(String name) {
+        return byName.get(TextNormalizeUtil.normalize(name));
+    }
+
+    /**
+     * Prefiksə uyğun şəhərlər: əvvəl adı prefikslə başlayanlar, sonra daxili sözü uyğun gələnlər;
+     * hər qrupda qısa adlar əvvəl.
+     */
+    public List<AzerbaijanCities.City> suggest(String query, int limit) {
+        String prefix = TextNormalizeUtil.normalize(query);
+        if (prefix.isEmpty() || limit <= 0) return List.of();
+
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) return List.of();
+
+        int size = Math.min(limit, node.ranked.length);
+        List<AzerbaijanCities.City> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(cities.get(node.ranked[i]));
+        }
+        return result;
+    }
+
+    private record Match(int city, int rank) {
+    }
+
+    private record Node(Map<Character, Node> children, int[] ranked) {
+    }
+
+    private static final class BuildNode {
+        private final Map<Character, BuildNode> children = new HashMap<>();
+        // Şəhər → ən yaxşı rank, eyni şəhər bir düyünə bir neçə sözlə düşə bilər
+        private final Map<Integer, Integer> matches = new HashMap<>();
+
+        private void insert(String name, int start, int city, int rank) {
+            BuildNode node = this;
+            for (int i = start; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), c -> new BuildNode());
+                node.matches.merge(city, rank, Math::min);
+            }
+        }
+
+        private Node freeze(Comparator<Match> order) {
+            Map<Character, Node> frozen = new HashMap<>(children.size() * 2);
+            children.forEach((c, child) -> frozen.put(c, child.freeze(order)));
+
+            int[] ranked = matches.entrySet().stream()
+                    .map(e -> new Match(e.getKey(), e.getValue()))
+                    .sorted(order)
+                    .mapToInt(Match::city)
+                    .toArray();
+            return new Node(Map.copyOf(frozen), ranked);
+        }
+    }
+}
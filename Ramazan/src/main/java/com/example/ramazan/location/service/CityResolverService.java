@@ -1,41 +1,62 @@
 package com.example.ramazan.location.service;
 
-import com.example.ramazan.common.util.GeoUtil;
-import com.example.ramazan.common.util.TextNormalizeUtil;
 import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.location.dto.NearestCity;
 import com.example.ramazan.location.dto.ResolvedCity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.List;
 
 @Service
 public class CityResolverService {
 
     private static final ResolvedCity DEFAULT_BAKU = new ResolvedCity("Bakı", 40.3953, 49.8822);
 
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final CityIndex cityIndex;
+    private final CityNameIndex cityNameIndex;
+
+    public CityResolverService(@Value("${location.index.cell-deg:0.5}") double cellDeg) {
+        this.cityIndex = CityIndex.of(AzerbaijanCities.CITIES, cellDeg);
+        this.cityNameIndex = CityNameIndex.of(AzerbaijanCities.CITIES);
+    }
+
     public ResolvedCity resolveCityByCoords(double lat, double lng) {
-        AzerbaijanCities.City nearest = AzerbaijanCities.CITIES.stream()
-                .min(Comparator.comparingDouble(c ->
-                        GeoUtil.haversineKm(lat, lng, c.latitude(), c.longitude())))
-                .orElse(null);
+        List<NearestCity> nearest = cityIndex.nearest(lat, lng, 1);
 
-        if (nearest == null) {
+        if (nearest.isEmpty()) {
             return new ResolvedCity("Məkanınız", lat, lng);
         }
 
-        return new ResolvedCity(nearest.name(), lat, lng);
+        return new ResolvedCity(nearest.get(0).cityName(), lat, lng);
+    }
+
+    public List<NearestCity> nearestCities(double lat, double lng, int limit) {
+        if (limit < 1 || limit > cityIndex.size()) {
+            throw new IllegalArgumentException("limit 1 ilə " + cityIndex.size() + " arasında olmalıdır");
+        }
+        return cityIndex.nearest(lat, lng, limit);
     }
 
     public ResolvedCity resolveCityByName(String city) {
         if (city == null || city.isBlank()) return DEFAULT_BAKU;
 
-        String normalizedCity = TextNormalizeUtil.normalize(city);
+        AzerbaijanCities.City found = cityNameIndex.find(city);
+        if (found == null) {
+            throw new IllegalArgumentException("Şəhər tapılmadı: " + city);
+        }
+        return new ResolvedCity(found.name(), found.latitude(), found.longitude());
+    }
 
-        return AzerbaijanCities.CITIES.stream()
-                .filter(c -> TextNormalizeUtil.normalize(c.name()).equals(normalizedCity))
-                .findFirst()
+    public List<ResolvedCity> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit 1 ilə " + MAX_SUGGESTIONS + " arasında olmalıdır");
+        }
+        return cityNameIndex.suggest(query, limit).stream()
                 .map(c -> new ResolvedCity(c.name(), c.latitude(), c.longitude()))
-                .orElseThrow(() -> new IllegalArgumentException("Şəhər tapılmadı: " + city));
+                .toList();
     }
 
     public ResolvedCity defaultCity() {
@@ -0,0 +1,32 @@
+package com.example.ramazan.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+
+/**
+ * Hilalın görünməsinə görə hicri ayın başlanğıcının Umm al-Qura cədvəlindən fərqli elan olunduğu hallar.
+ */
+@Data
+@Entity
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "hijri_month_overrides",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_hijri_month_overrides_year_month",
+                columnNames = {"hijri_year", "hijri_month"}))
+public class HijriMonthOverride {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Integer id;
+    @Column(name = "hijri_year", nullable = false)
+    Integer hijriYear;
+    @Column(name = "hijri_month", nullable = false)
+    Integer hijriMonth;
+    @Column(name = "start_date", nullable = false)
+    LocalDate startDate;
+}
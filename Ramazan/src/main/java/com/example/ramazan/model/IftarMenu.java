@@ -28,9 +28,9 @@ public class IftarMenu {
     @Column(columnDefinition = "TEXT")
     String description;
     BigDecimal price;
-    @Lob
-    @Column(columnDefinition = "MEDIUMBLOB",name = "cover_image_url")
-    byte[] coverImageUrl;
+    // Şəkil ImageStore-dadır, burada yalnız məzmunun SHA-256 həş-i saxlanılır
+    @Column(name = "cover_image_hash", length = 64)
+    String coverImageHash;
     @Column(name = "cover_image_type", length = 50)
     private String coverImageType;
     Boolean isActive=true;
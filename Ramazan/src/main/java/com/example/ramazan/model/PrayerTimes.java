@@ -13,7 +13,10 @@ import java.time.LocalTime;
 @Entity
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
-@Table(name = "prayer_times")
+@Table(name = "prayer_times",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_prayer_times_date_location_method",
+                columnNames = {"date", "location_key", "method"}))
 public class PrayerTimes {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,12 +25,19 @@ public class PrayerTimes {
     LocalDate date;
     @Column(name = "location_key", nullable = false)
     String locationKey;
+    @Column(nullable = false, length = 20)
+    String method;
     LocalTime imsak;
     LocalTime fajr;
     LocalTime sunrise;
     LocalTime dhuhr;
     LocalTime asr;
+    LocalTime sunset;
     LocalTime maghrib;
     LocalTime isha;
+    LocalTime midnight;
+    // Sətri hesablayan mühərrik versiyası, metodlar və şəhərlər; cari dəyərdən fərqli sətirlər yenidən hesablanır
+    @Column(name = "fingerprint")
+    Integer fingerprint;
 
 }
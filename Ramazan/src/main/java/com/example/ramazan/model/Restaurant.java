@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @NoArgsConstructor
-@Table(name = "restaurants")
+@Table(name = "restaurants", indexes = {
+        @Index(name = "idx_restaurants_lat_lng", columnList = "latitude, longitude"),
+        @Index(name = "idx_restaurants_lng_lat", columnList = "longitude, latitude")
+})
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Restaurant {
 
@@ -42,9 +45,9 @@ public class Restaurant {
     @Column(nullable = false)
     Double longitude;
     String phone;
-    @Lob
-    @Column(columnDefinition = "MEDIUMBLOB",name = "cover_image_url")
-    byte[] coverImageUrl;
+    // Şəkil ImageStore-dadır, burada yalnız məzmunun SHA-256 həş-i saxlanılır
+    @Column(name = "cover_image_hash", length = 64)
+    String coverImageHash;
     @Column(name = "cover_image_type", length = 50)
     private String coverImageType;
     String openTime;
@@ -53,6 +56,10 @@ public class Restaurant {
     LocalDateTime createdAt;
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean hasAdvertisement;
+    // Hər yazıda artır; RestaurantGeoIndex gec çatan köhnə hadisələri bununla atır
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    Long version;
 
     @PrePersist
     public void prePersist() {
@@ -0,0 +1,34 @@
+package com.example.ramazan.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * restaurants cədvəlinin şəkilsiz proyeksiyası: yalnız siyahı cavabı üçün lazım olan sütunlar.
+ */
+public record RestaurantSummary(
+        Integer id,
+        String name,
+        String email,
+        String link1,
+        String link2,
+        String link3,
+        String link4,
+        String link5,
+        String address,
+        String city,
+        Double latitude,
+        Double longitude,
+        String phone,
+        String openTime,
+        String closeTime,
+        LocalDateTime createdAt,
+        Long version
+) {
+
+    public static RestaurantSummary of(Restaurant r) {
+        return new RestaurantSummary(r.getId(), r.getName(), r.getEmail(),
+                r.getLink1(), r.getLink2(), r.getLink3(), r.getLink4(), r.getLink5(),
+                r.getAddress(), r.getCity(), r.getLatitude(), r.getLongitude(), r.getPhone(),
+                r.getOpenTime(), r.getCloseTime(), r.getCreatedAt(), r.getVersion());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ramazan.prayer.controller;
+
+import com.example.ramazan.location.dto.NearestCity;
+import com.example.ramazan.location.dto.ResolvedCity;
+import com.example.ramazan.location.service.CityResolverService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/cities")
+@RequiredArgsConstructor
+public class CityController {
+
+    private final CityResolverService cityResolverService;
+
+    @GetMapping("/nearest")
+    public List<NearestCity> nearest(@RequestParam double lat,
+                                     @RequestParam double lng,
+                                     @RequestParam(defaultValue = "5") int limit) {
+        return cityResolverService.nearestCities(lat, lng, limit);
+    }
+
+    @GetMapping("/suggest")
+    public List<ResolvedCity> suggest(@RequestParam String q,
+                                      @RequestParam(defaultValue = "10") int limit) {
+        return cityResolverService.suggest(q, limit);
+    }
+}
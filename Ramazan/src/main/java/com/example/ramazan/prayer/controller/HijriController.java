@@ -0,0 +1,57 @@
+package com.example.ramazan.prayer.controller;
+
+import com.example.ramazan.calculation.dto.HijriDate;
+import com.example.ramazan.calculation.service.HijriCalendarService;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.prayer.dto.HijriOverrideRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/hijri")
+@RequiredArgsConstructor
+public class HijriController {
+
+    private final HijriCalendarService hijriCalendarService;
+
+    @GetMapping("/date")
+    public HijriDate toHijri(@RequestParam(defaultValue = "today") String date) {
+        LocalDate used = "today".equalsIgnoreCase(date) ? LocalDate.now(TimeConfig.zoneId) : LocalDate.parse(date);
+        return hijriCalendarService.toHijri(used);
+    }
+
+    @GetMapping("/gregorian")
+    public LocalDate toGregorian(@RequestParam int year,
+                                 @RequestParam int month,
+                                 @RequestParam(defaultValue = "1") int day) {
+        return hijriCalendarService.toGregorian(year, month, day);
+    }
+
+    @GetMapping("/overrides")
+    public Map<String, LocalDate> getOverrides() {
+        return hijriCalendarService.getOverrides();
+    }
+
+    @PutMapping("/overrides")
+    public HijriDate setOverride(@RequestBody HijriOverrideRequest request) {
+        if (request.year() == null || request.month() == null || request.startDate() == null) {
+            throw new IllegalArgumentException("year, month və startDate mütləqdir");
+        }
+        return hijriCalendarService.setOverride(request.year(), request.month(), LocalDate.parse(request.startDate()));
+    }
+
+    @DeleteMapping("/overrides/{year}/{month}")
+    public void removeOverride(@PathVariable int year, @PathVariable int month) {
+        hijriCalendarService.removeOverride(year, month);
+    }
+}
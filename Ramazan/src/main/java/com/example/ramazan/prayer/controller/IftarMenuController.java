@@ -9,6 +9,7 @@ import com.example.ramazan.prayer.service.IftarMenuService;
 import com.example.ramazan.repository.IftarMenuRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -63,7 +64,7 @@ public class IftarMenuController {
 
 
     @GetMapping(value = "/{id}/cover")
-    public ResponseEntity<byte[]> getCoverImage(@PathVariable Integer id) {
+    public ResponseEntity<Resource> getCoverImage(@PathVariable Integer id) {
         return iftarMenuService.getCoverImage(id);
     }
 
@@ -1,18 +1,36 @@
 package com.example.ramazan.prayer.controller;
 
 import com.example.ramazan.calculation.RamadanDayCal;
+import com.example.ramazan.prayer.dto.PrayerBatchQuery;
+import com.example.ramazan.prayer.dto.PrayerBatchResponse;
+import com.example.ramazan.prayer.dto.PrayerCacheStatsResponse;
+import com.example.ramazan.prayer.dto.PrayerCalendarResponse;
 import com.example.ramazan.prayer.dto.PrayerTimesResponse;
+import com.example.ramazan.enums.ExportFormat;
+import com.example.ramazan.prayer.service.CountdownStreamService;
+import com.example.ramazan.prayer.service.PrayerBatchService;
+import com.example.ramazan.prayer.service.PrayerExportService;
 import com.example.ramazan.prayer.service.PrayerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -22,15 +40,69 @@ import java.util.Map;
 public class PrayerController {
 
     private final PrayerService prayerService;
+    private final PrayerBatchService prayerBatchService;
+    private final PrayerExportService prayerExportService;
+    private final CountdownStreamService countdownStreamService;
     private final RamadanDayCal ramadanDayCal;
 
     @GetMapping("/times")
-    public PrayerTimesResponse getTimes(
+    public ResponseEntity<PrayerTimesResponse> getTimes(
             @RequestParam(required = false) Double lat,
             @RequestParam(required = false) Double lng,
             @RequestParam(required = false) String city,
             @RequestParam(defaultValue = "today") String date,
             @RequestParam(required = false) Double tz,
+            @RequestParam(required = false) String method,
+            WebRequest webRequest
+    ) {
+        if((lat!=null &&lng==null)||lat==null&&lng!=null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "lat və lng parametrləri birlikdə göndərilməlidir");
+        }
+
+        String etag = prayerService.timesEtag(lat, lng, city, date, tz, method);
+        CacheControl cacheControl = prayerService.timesCacheControl(date);
+
+        // If-None-Match uyğun gəlirsə hesablama aparılmadan 304 qaytarılır
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(prayerService.getTimes(lat, lng, city, date, tz, method));
+    }
+
+
+    @PostMapping("/times/batch")
+    public PrayerBatchResponse getBatchTimes(@RequestBody List<PrayerBatchQuery> queries) {
+        return prayerBatchService.getTimes(queries);
+    }
+
+
+    @GetMapping("/cities")
+    public List<PrayerTimesResponse> getAllCitiesTimes(
+            @RequestParam(defaultValue = "today") String date,
+            @RequestParam(required = false) Double tz,
+            @RequestParam(required = false) String method
+    ) {
+        return prayerService.getAllCitiesTimes(date, tz, method);
+    }
+
+
+    @GetMapping("/calendar")
+    public PrayerCalendarResponse getCalendar(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "month") String period,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Double tz,
             @RequestParam(required = false) String method
     ) {
         if((lat!=null &&lng==null)||lat==null&&lng!=null){
@@ -38,7 +110,34 @@ public class PrayerController {
                     "lat və lng parametrləri birlikdə göndərilməlidir");
         }
 
-        return prayerService.getTimes(lat, lng, city, date, tz, method);
+        return prayerService.getCalendar(lat, lng, city, period, year, month, tz, method);
+    }
+
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Double tz,
+            @RequestParam(required = false) String method
+    ) {
+        if((lat!=null &&lng==null)||lat==null&&lng!=null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "lat və lng parametrləri birlikdə göndərilməlidir");
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        StreamingResponseBody body = prayerExportService.export(exportFormat, lat, lng, city, from, to, tz, method);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"prayer-times." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
 
@@ -60,6 +159,28 @@ public class PrayerController {
     }
 
 
+    @GetMapping("/cache/stats")
+    public PrayerCacheStatsResponse getCacheStats() {
+        return prayerService.getCacheStats();
+    }
+
+
+    @GetMapping(value = "/countdown/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCountdown(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "MWL") String method
+    ) {
+        if((lat!=null &&lng==null)||lat==null&&lng!=null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "lat və lng parametrləri birlikdə göndərilməlidir");
+        }
+
+        return countdownStreamService.subscribe(lat, lng, city, method);
+    }
+
+
     @GetMapping("/ramadan-day")
     public Map<String, Object> getRamadanDay() {
         int day = ramadanDayCal.getRamadanDay();
@@ -10,6 +10,7 @@ import com.example.ramazan.repository.RestaurantRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -39,9 +40,21 @@ public class RestaurantController {
     public List<RestaurantDto> nearby(
             @RequestParam double lat,
             @RequestParam double lng,
-            @RequestParam double radiusKm
+            @RequestParam double radiusKm,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Double afterDistanceKm,
+            @RequestParam(required = false) Integer afterId
     ) {
-        return restaurantService.nearBy(lat, lng, radiusKm);
+        return restaurantService.nearBy(lat, lng, radiusKm, limit, afterDistanceKm, afterId);
+    }
+
+    @GetMapping("/nearest")
+    public List<RestaurantDto> nearest(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return restaurantService.nearest(lat, lng, limit);
     }
 
     @GetMapping("/{id}")
@@ -92,7 +105,7 @@ public class RestaurantController {
 
 
     @GetMapping(value = "/{id}/cover")
-    public ResponseEntity<byte[]> getCoverImage(@PathVariable Integer id) {
+    public ResponseEntity<Resource> getCoverImage(@PathVariable Integer id) {
         return restaurantService.getCoverImage(id);
     }
 
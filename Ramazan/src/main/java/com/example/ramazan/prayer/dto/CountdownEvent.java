@@ -0,0 +1,9 @@
+package com.example.ramazan.prayer.dto;
+
+public record CountdownEvent(
+        String city,
+        String method,
+        String event,     // imsak və ya iftar
+        String at,        // ISO-8601 UTC an
+        long epochMillis
+) {}
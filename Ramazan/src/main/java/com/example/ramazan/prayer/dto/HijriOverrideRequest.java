@@ -0,0 +1,7 @@
+package com.example.ramazan.prayer.dto;
+
+public record HijriOverrideRequest(
+        Integer year,
+        Integer month,
+        String startDate    // yyyy-MM-dd, ayın 1-ci günü
+) {}
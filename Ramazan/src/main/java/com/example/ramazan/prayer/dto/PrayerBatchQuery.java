@@ -0,0 +1,9 @@
+package com.example.ramazan.prayer.dto;
+
+public record PrayerBatchQuery(
+        Double lat,
+        Double lng,
+        String date,      // yyyy-MM-dd, boş və ya "today" = bu gün
+        Double tz,
+        String method
+) {}
@@ -0,0 +1,12 @@
+package com.example.ramazan.prayer.dto;
+
+import java.util.List;
+
+/**
+ * {@code times[i]} sorğudakı i-ci elementin cavabıdır; hər sətir {@code prayers} sırası ilə
+ * günün saniyələridir, -1 vaxtın hesablanmadığını bildirir.
+ */
+public record PrayerBatchResponse(
+        List<String> prayers,
+        int[][] times
+) {}
@@ -0,0 +1,10 @@
+package com.example.ramazan.prayer.dto;
+
+public record PrayerCacheStatsResponse(
+        double gridDeg,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions
+) {}
@@ -0,0 +1,11 @@
+package com.example.ramazan.prayer.dto;
+
+import java.util.List;
+
+public record PrayerCalendarResponse(
+        String city,
+        String from,
+        String to,
+        String method,
+        List<PrayerTimesResponse> days
+) {}
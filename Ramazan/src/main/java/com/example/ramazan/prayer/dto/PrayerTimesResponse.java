@@ -1,14 +1,24 @@
 package com.example.ramazan.prayer.dto;
 
+import com.example.ramazan.calculation.engine.Prayer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-
-import java.time.LocalTime;
-import java.util.Map;
-
+/**
+ * Vaxtlar günün saniyəsi kimi saxlanılır və yalnız JSON-a yazılanda mətnə çevrilir,
+ * JSON forması əvvəlki kimidir: imsak, iftar və fullTimes "HH:mm:ss" sətirləridir.
+ */
+@JsonSerialize(using = PrayerTimesResponseSerializer.class)
 public record PrayerTimesResponse(
         String city,
         String date,
-        String imsak,
-        String iftar,
-        Map<String, String> fullTimes
-) {}
+        int[] times       // Prayer.ordinal() sırası ilə
+) {
+
+    public int imsak() {
+        return times[Prayer.IMSAK.ordinal()];
+    }
+
+    public int iftar() {
+        return times[Prayer.MAGHRIB.ordinal()];
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ramazan.prayer.dto;
+
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.common.util.TimeText;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class PrayerTimesResponseSerializer extends StdSerializer<PrayerTimesResponse> {
+
+    private static final SerializableString CITY = new SerializedString("city");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString IMSAK = new SerializedString("imsak");
+    private static final SerializableString IFTAR = new SerializedString("iftar");
+    private static final SerializableString FULL_TIMES = new SerializedString("fullTimes");
+
+    // Sahə adları bir dəfə kodlaşdırılır
+    private static final SerializableString[] PRAYER_NAMES = new SerializableString[Prayer.COUNT];
+
+    static {
+        for (Prayer prayer : Prayer.VALUES) {
+            PRAYER_NAMES[prayer.ordinal()] = new SerializedString(prayer.getDisplayName());
+        }
+    }
+
+    public PrayerTimesResponseSerializer() {
+        super(PrayerTimesResponse.class);
+    }
+
+    @Override
+    public void serialize(PrayerTimesResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(CITY);
+        gen.writeString(value.city());
+        gen.writeFieldName(DATE);
+        gen.writeString(value.date());
+        gen.writeFieldName(IMSAK);
+        gen.writeString(TimeText.hhmmss(value.imsak()));
+        gen.writeFieldName(IFTAR);
+        gen.writeString(TimeText.hhmmss(value.iftar()));
+
+        gen.writeFieldName(FULL_TIMES);
+        gen.writeStartObject();
+        int[] times = value.times();
+        for (int k = 0; k < Prayer.COUNT; k++) {
+            gen.writeFieldName(PRAYER_NAMES[k]);
+            gen.writeString(TimeText.hhmmss(times[k]));
+        }
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 @Data
 public class RestaurantDto {
 
+    Integer id;
     String name;
     String email;
     String link1;
@@ -26,4 +27,6 @@ public class RestaurantDto {
     String openTime;
     String closeTime;
     LocalDateTime createdAt;
+    // Yalnız məkan sorğularında doldurulur, növbəti səhifənin kursoru (distanceKm, id) cütüdür
+    Double distanceKm;
 }
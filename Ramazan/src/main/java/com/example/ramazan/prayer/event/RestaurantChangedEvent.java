@@ -0,0 +1,10 @@
+package com.example.ramazan.prayer.event;
+
+import com.example.ramazan.model.RestaurantSummary;
+
+/**
+ * Restoran yaradıldı və ya dəyişdi; tranzaksiya commit olunandan sonra yayılır. Dinləyicilər asinxrondur,
+ * ona görə eyni restoranın hadisələri sırasız çata bilər: {@link RestaurantSummary#version()} artan sıranı verir.
+ */
+public record RestaurantChangedEvent(RestaurantSummary restaurant) {
+}
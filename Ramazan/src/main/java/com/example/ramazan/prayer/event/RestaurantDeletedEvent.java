@@ -0,0 +1,4 @@
+package com.example.ramazan.prayer.event;
+
+public record RestaurantDeletedEvent(Integer id) {
+}
@@ -1,9 +1,11 @@
 package com.example.ramazan.prayer.mapper;
 
 import com.example.ramazan.model.Restaurant;
+import com.example.ramazan.model.RestaurantSummary;
 import com.example.ramazan.prayer.dto.RestaurantCreateDto;
 import com.example.ramazan.prayer.dto.RestaurantDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
@@ -13,6 +15,13 @@ public interface RestaurantMapper {
 
     void updateEntity(RestaurantCreateDto dto, @MappingTarget Restaurant restaurant);
 
+    @Mapping(target = "distanceKm", ignore = true)
     RestaurantDto fromEntityToDto(Restaurant restaurant);
 
+    @Mapping(target = "distanceKm", ignore = true)
+    RestaurantDto fromSummaryToDto(RestaurantSummary summary);
+
+    @Mapping(target = "distanceKm", source = "distanceKm")
+    RestaurantDto fromSummaryToDto(RestaurantSummary summary, Double distanceKm);
+
 }
@@ -0,0 +1,266 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.location.dto.ResolvedCity;
+import com.example.ramazan.location.service.CityResolverService;
+import com.example.ramazan.prayer.dto.CountdownEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Oruc geri sayımını SSE ilə göndərir. Hər (şəhər, metod) üçün bir zaman xətti var: abunəçiyə növbəti
+ * hadisənin (imsak və ya iftar) anı bir dəfə göndərilir, sonra yalnız keçid anında yeni hadisə yayılır.
+ * Keçidlər arasında heç bir hesablama və ya göndəriş yoxdur, abunəçi sayından asılı olmayaraq
+ * bir zaman xətti üçün yalnız bir planlaşdırılmış tapşırıq olur. Keçid anındakı göndərişlər ayrıca
+ * thread pool-a paylanır.
+ */
+@Service
+@Slf4j
+public class CountdownStreamService {
+
+    private static final String IMSAK = "imsak";
+    private static final String IFTAR = "iftar";
+    // Növbəti hadisə hesablanmayanda təkrar cəhdlər: 1, 2, 4, ... san, MAX_RETRIES-dən sonra zaman xətti bağlanır
+    private static final long RETRY_INITIAL_MS = 1_000;
+    private static final long RETRY_MAX_MS = 60_000;
+    private static final int MAX_RETRIES = 6;
+
+    private final CityResolverService cityResolverService;
+    private final PrayerCalculationService prayerCalculationService;
+    private final PrecomputedPrayerTimes precomputedPrayerTimes;
+    private final TaskScheduler taskScheduler;
+    private final long emitterTimeoutMs;
+
+    private final Map<Key, Timeline> timelines = new ConcurrentHashMap<>();
+    // Keçid anında göndərişlər planlayıcı thread-ində deyil, burada gedir ki, yavaş müştəri
+    // digər zaman xətlərini və ortaq TaskScheduler-i saxlamasın
+    private final ExecutorService sendExecutor;
+
+    public CountdownStreamService(CityResolverService cityResolverService,
+                                  PrayerCalculationService prayerCalculationService,
+                                  PrecomputedPrayerTimes precomputedPrayerTimes,
+                                  TaskScheduler taskScheduler,
+                                  @Value("${prayer.countdown.emitter-timeout-ms:3600000}") long emitterTimeoutMs,
+                                  @Value("${prayer.countdown.send-threads:4}") int sendThreads) {
+        this.cityResolverService = cityResolverService;
+        this.prayerCalculationService = prayerCalculationService;
+        this.precomputedPrayerTimes = precomputedPrayerTimes;
+        this.taskScheduler = taskScheduler;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        AtomicInteger threads = new AtomicInteger();
+        this.sendExecutor = Executors.newFixedThreadPool(Math.max(1, sendThreads), r -> {
+            Thread thread = new Thread(r, "countdown-send-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timelines.values().forEach(Timeline::cancel);
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Koordinatla gələn abunəçilər ən yaxın şəhərin zaman xəttinə qoşulur ki, paylaşım mümkün olsun.
+     */
+    public SseEmitter subscribe(Double lat, Double lng, String city, String method) {
+        ResolvedCity resolved = resolveCity(lat, lng, city);
+        Key key = new Key(resolved.cityName(), MethodProfiles.resolve(method).getMethod().name());
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Timeline timeline;
+        while (true) {
+            timeline = timelines.computeIfPresent(key, (k, t) -> {
+                t.emitters.add(emitter);
+                return t;
+            });
+            if (timeline != null) break;
+
+            // Növbəti hadisənin hesablanması (DB oxuma) və planlaşdırma xəritənin kilidindən kənarda aparılır
+            Timeline created = new Timeline(key, resolved);
+            created.emitters.add(emitter);
+            if (timelines.putIfAbsent(key, created) == null) {
+                timeline = created;
+                break;
+            }
+            // Başqa abunəçi eyni anda yaratdı, onun zaman xəttinə qoşulur
+            created.cancel();
+        }
+
+        Runnable remove = () -> unsubscribe(key, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        CountdownEvent current = timeline.current();
+        if (current != null) {
+            send(timeline, emitter, current);
+        }
+        return emitter;
+    }
+
+    private void unsubscribe(Key key, SseEmitter emitter) {
+        timelines.computeIfPresent(key, (k, t) -> {
+            t.emitters.remove(emitter);
+            if (!t.emitters.isEmpty()) return t;
+            t.cancel();
+            return null;
+        });
+    }
+
+    private void send(Timeline timeline, SseEmitter emitter, CountdownEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("countdown")
+                    .id(Long.toString(event.epochMillis()))
+                    .data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // bağlantı artıq bağlanıb
+            timeline.emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private CountdownEvent nextEvent(Key key, ResolvedCity city, Instant after) {
+        LocalDate date = LocalDate.ofInstant(after, TimeConfig.zoneId);
+        for (int i = 0; i < 2; i++) {
+            LocalDate day = date.plusDays(i);
+            PrayerTimesDto times = times(city, key.method(), day);
+            CountdownEvent imsak = event(key, day, IMSAK, times.imsak(), after);
+            if (imsak != null) return imsak;
+            CountdownEvent iftar = event(key, day, IFTAR, times.iftar(), after);
+            if (iftar != null) return iftar;
+        }
+        throw new IllegalStateException("Növbəti imsak/iftar tapılmadı: " + key);
+    }
+
+    private CountdownEvent event(Key key, LocalDate day, String name, int secondOfDay, Instant after) {
+        if (secondOfDay < 0) return null;
+        Instant at = day.atStartOfDay(TimeConfig.zoneId).plusSeconds(secondOfDay).toInstant();
+        if (!at.isAfter(after)) return null;
+        return new CountdownEvent(key.city(), key.method(), name, at.toString(), at.toEpochMilli());
+    }
+
+    private PrayerTimesDto times(ResolvedCity city, String method, LocalDate date) {
+        return precomputedPrayerTimes.find(city.cityName(), method, date)
+                .orElseGet(() -> prayerCalculationService.calculate(
+                        date,
+                        city.latitude(),
+                        city.longitude(),
+                        PrecomputedPrayerTimes.STORED_TZ,
+                        method
+                ));
+    }
+
+    private ResolvedCity resolveCity(Double lat, Double lng, String city) {
+        if (lat != null && lng != null) {
+            return cityResolverService.resolveCityByName(cityResolverService.resolveCityByCoords(lat, lng).cityName());
+        } else if (city != null && !city.isBlank()) {
+            return cityResolverService.resolveCityByName(city);
+        } else {
+            return cityResolverService.defaultCity();
+        }
+    }
+
+    private record Key(String city, String method) {
+    }
+
+    private final class Timeline {
+        private final Key key;
+        private final ResolvedCity city;
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private volatile CountdownEvent current;
+        private ScheduledFuture<?> next;
+        private boolean cancelled;
+        private int failures;
+
+        private Timeline(Key key, ResolvedCity city) {
+            this.key = key;
+            this.city = city;
+            advance(Instant.now());
+        }
+
+        private CountdownEvent current() {
+            return current;
+        }
+
+        private synchronized void advance(Instant after) {
+            if (cancelled) return;
+            current = nextEvent(key, city, after);
+            Instant at = Instant.ofEpochMilli(current.epochMillis());
+            next = taskScheduler.schedule(this::transition, at);
+            failures = 0;
+            log.debug("Geri sayım {}: növbəti {} {}", key, current.event(), current.at());
+        }
+
+        private void transition() {
+            CountdownEvent previous = current;
+            try {
+                // Planlayıcı bir az tez işləsə belə eyni hadisə təkrarlanmasın
+                Instant now = Instant.now();
+                Instant passed = Instant.ofEpochMilli(previous.epochMillis());
+                advance(now.isAfter(passed) ? now : passed);
+            } catch (RuntimeException e) {
+                if (!retry(e)) fail(e);
+                return;
+            }
+            CountdownEvent event = current;
+            for (SseEmitter emitter : emitters) {
+                try {
+                    sendExecutor.execute(() -> send(this, emitter, event));
+                } catch (RejectedExecutionException e) {
+                    // servis dayandırılır
+                    return;
+                }
+            }
+        }
+
+        // Təkrar cəhd planlaşdırılıbsa true, cəhdlər bitibsə false
+        private synchronized boolean retry(RuntimeException e) {
+            if (cancelled) return true;
+            failures++;
+            if (failures > MAX_RETRIES) return false;
+            long delay = Math.min(RETRY_MAX_MS, RETRY_INITIAL_MS << (failures - 1));
+            log.warn("Geri sayım {} üçün növbəti hadisə hesablanmadı, {} ms sonra təkrar: {}", key, delay, e.getMessage());
+            next = taskScheduler.schedule(this::transition, Instant.now().plusMillis(delay));
+            return true;
+        }
+
+        // Zaman xətti xəritədən çıxarılır ki, yeni abunəçilər təzəsini yaratsın; mövcudlar xəta ilə bağlanır
+        // və yenidən qoşulur. Emitter callback-ləri xəritəni kilidlədiyi üçün bu, monitordan kənarda edilir.
+        private void fail(RuntimeException e) {
+            log.error("Geri sayım {} {} cəhddən sonra dayandırıldı", key, MAX_RETRIES, e);
+            timelines.remove(key, this);
+            cancel();
+            for (SseEmitter emitter : emitters) {
+                emitter.completeWithError(e);
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (next != null) next.cancel(false);
+        }
+    }
+}
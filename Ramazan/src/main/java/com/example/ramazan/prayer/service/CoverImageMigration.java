@@ -0,0 +1,186 @@
+package com.example.ramazan.prayer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Köhnə {@code cover_image_url} MEDIUMBLOB sütunlarındakı şəkilləri {@link ImageStore}-a köçürür. İki ayrı addımdır:
+ * <ol>
+ *     <li>{@code image.store.migrate.enabled}: hər blob axınla fayla yazılır və həş {@code cover_image_hash}-a
+ *     yazılır. Blob toxunulmaz qalır.</li>
+ *     <li>{@code image.store.migrate.purge-blobs}: faylı mövcud olan və məzmunu həşə uyğun gələn sətirlərdə blob
+ *     NULL edilir. Yalnız fayllar davamlı qovluqda yoxlanıldıqdan sonra açıq şəkildə işə salınmalıdır.</li>
+ * </ol>
+ * Hər iki addım susmaya görə söndürülüb və {@code image.store.root} açıq verilməyibsə işləmir. Entity-lər blob
+ * sütununu tanımır, ona görə JdbcTemplate istifadə olunur. Təkrar işə salına bilər, köçürülmüş sətirlər atlanır.
+ * <p>
+ * Köçürmə işləməyibsə şəkillər {@link #restoreFromBlob} ilə sorğu zamanı blobdan verilir, ona görə deploydan
+ * sonra heç bir şəkil itmir.
+ */
+@Component
+@Slf4j
+public class CoverImageMigration {
+
+    public static final String RESTAURANTS = "restaurants";
+    public static final String IFTAR_MENUS = "iftar_menus";
+    private static final List<String> TABLES = List.of(RESTAURANTS, IFTAR_MENUS);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageStore imageStore;
+    private final boolean enabled;
+    private final boolean purgeBlobs;
+    private final String storeRoot;
+    private final int batchSize;
+
+    public CoverImageMigration(JdbcTemplate jdbcTemplate,
+                               ImageStore imageStore,
+                               @Value("${image.store.migrate.enabled:false}") boolean enabled,
+                               @Value("${image.store.migrate.purge-blobs:false}") boolean purgeBlobs,
+                               @Value("${image.store.root:}") String storeRoot,
+                               @Value("${image.store.migrate.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStore = imageStore;
+        this.enabled = enabled;
+        this.purgeBlobs = purgeBlobs;
+        this.storeRoot = storeRoot;
+        this.batchSize = batchSize;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled && !purgeBlobs) return;
+        if (storeRoot.isBlank()) {
+            log.error("Şəkil köçürülməsi üçün image.store.root davamlı qovluğa açıq şəkildə təyin edilməlidir");
+            return;
+        }
+        for (String table : TABLES) {
+            try {
+                if (!hasBlobColumn(table)) continue;
+                if (enabled) copy(table);
+                if (purgeBlobs) purge(table);
+            } catch (DataAccessException e) {
+                log.warn("{} şəkilləri köçürülmədi: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Faylı anbarda olmayan şəkli köhnə blob sütunundan axınla anbara yazır və həş-i qaytarır.
+     * Sətrə heç nə yazılmır, blob yoxdursa və ya sütun artıq silinibsə boş qaytarılır.
+     */
+    public Optional<String> restoreFromBlob(String table, int id) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Naməlum cədvəl: " + table);
+        }
+        try {
+            return Optional.ofNullable(jdbcTemplate.query(
+                    "SELECT cover_image_url FROM " + table + " WHERE id = ?",
+                    rs -> rs.next() ? store(rs.getBinaryStream(1)) : null,
+                    id));
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.debug("{} id = {} şəkli blobdan oxunmadı: {}", table, id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void copy(String table) {
+        int copied = 0, failed = 0;
+        int lastId = 0;
+        while (true) {
+            // Yalnız id-lər oxunur, blob-lar bir-bir axınla götürülür
+            List<Integer> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM " + table + " WHERE cover_image_url IS NOT NULL AND cover_image_hash IS NULL " +
+                            "AND id > ? ORDER BY id LIMIT ?",
+                    Integer.class, lastId, batchSize);
+            if (ids.isEmpty()) break;
+
+            for (Integer id : ids) {
+                lastId = id;
+                try {
+                    String hash = jdbcTemplate.query(
+                            "SELECT cover_image_url FROM " + table + " WHERE id = ?",
+                            rs -> rs.next() ? store(rs.getBinaryStream(1)) : null,
+                            id);
+                    if (hash == null) continue;
+                    // ImageStore faylı fsync edib, həş yalnız bundan sonra yazılır
+                    jdbcTemplate.update("UPDATE " + table + " SET cover_image_hash = ? WHERE id = ?", hash, id);
+                    copied++;
+                } catch (DataAccessException | UncheckedIOException e) {
+                    failed++;
+                    log.warn("{} id = {} şəkli köçürülmədi: {}", table, id, e.getMessage());
+                }
+            }
+        }
+        if (copied > 0 || failed > 0) {
+            log.info("{}: {} şəkil fayl anbarına köçürüldü, {} xəta", table, copied, failed);
+        }
+    }
+
+    private void purge(String table) {
+        int purged = 0, skipped = 0;
+        int lastId = 0;
+        while (true) {
+            List<Row> rows = jdbcTemplate.query(
+                    "SELECT id, cover_image_hash, OCTET_LENGTH(cover_image_url) FROM " + table +
+                            " WHERE cover_image_url IS NOT NULL AND cover_image_hash IS NOT NULL " +
+                            "AND id > ? ORDER BY id LIMIT ?",
+                    (rs, i) -> new Row(rs.getInt(1), rs.getString(2), rs.getLong(3)),
+                    lastId, batchSize);
+            if (rows.isEmpty()) break;
+
+            for (Row row : rows) {
+                lastId = row.id();
+                try {
+                    if (!imageStore.verify(row.hash(), row.length())) {
+                        skipped++;
+                        log.warn("{} id = {}: fayl tapılmadı və ya həşə uyğun deyil, blob saxlanılır", table, row.id());
+                        continue;
+                    }
+                } catch (IOException e) {
+                    skipped++;
+                    log.warn("{} id = {} faylı oxunmadı: {}", table, row.id(), e.getMessage());
+                    continue;
+                }
+                jdbcTemplate.update("UPDATE " + table + " SET cover_image_url = NULL WHERE id = ? AND cover_image_hash = ?",
+                        row.id(), row.hash());
+                purged++;
+            }
+        }
+        if (purged > 0 || skipped > 0) {
+            log.info("{}: {} blob silindi, {} yoxlamadan keçmədi", table, purged, skipped);
+        }
+    }
+
+    private String store(InputStream in) {
+        if (in == null) return null;
+        try (in) {
+            return imageStore.store(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean hasBlobColumn(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = 'cover_image_url'",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private record Row(int id, String hash, long length) {
+    }
+}
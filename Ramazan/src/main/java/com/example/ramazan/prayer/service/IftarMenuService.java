@@ -11,9 +11,8 @@ import com.example.ramazan.repository.IftarMenuRepository;
 import com.example.ramazan.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 
 @Service
@@ -36,6 +36,8 @@ public class IftarMenuService {
     private final IftarMenuMapper iftarMenuMapper;
     private final RestaurantRepository restaurantRepository;
     private final NotificationService notificationService;
+    private final ImageStore imageStore;
+    private final CoverImageMigration coverImageMigration;
 
     public IftarMenuResponseDto create(IftarMenuCreateDto dto) {
 
@@ -106,8 +108,8 @@ public class IftarMenuService {
         IftarMenu iftarMenu = iftarMenuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Iftar Menu tapılmadı"));
 
-        try {
-            iftarMenu.setCoverImageUrl(file.getBytes());
+        try (InputStream in = file.getInputStream()) {
+            iftarMenu.setCoverImageHash(imageStore.store(in));
             iftarMenu.setCoverImageType(file.getContentType());
 
             iftarMenuRepository.save(iftarMenu);
@@ -115,30 +117,23 @@ public class IftarMenuService {
             return ResponseEntity.ok("Şəkil uğurla yükləndi, ID: " + id);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Şəkil oxunmadı: " + e.getMessage());
+                    .body("Şəkil yazılmadı: " + e.getMessage());
         }
     }
 
 
-    public ResponseEntity<byte[]> getCoverImage(Integer id) {
+    public ResponseEntity<Resource> getCoverImage(Integer id) {
 
 
         IftarMenu iftarMenu = iftarMenuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Iftar Menu tapılmadı"));
 
-
-        byte[] imageBytes = iftarMenu.getCoverImageUrl();
-
-        if (imageBytes == null || imageBytes.length == 0) {
-            return ResponseEntity.notFound().build();
+        String hash = iftarMenu.getCoverImageHash();
+        if (imageStore.find(hash).isEmpty()) {
+            // Hələ köçürülməmiş şəkil köhnə blob sütunundan götürülür
+            hash = coverImageMigration.restoreFromBlob(CoverImageMigration.IFTAR_MENUS, id).orElse(hash);
         }
-
-        MediaType contentType = MediaType.IMAGE_JPEG;
-
-        return ResponseEntity.ok()
-                .contentType(contentType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
-                .body(imageBytes);
+        return imageStore.response(hash, iftarMenu.getCoverImageType());
     }
 
 
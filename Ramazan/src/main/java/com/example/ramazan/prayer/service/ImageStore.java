@@ -0,0 +1,162 @@
+package com.example.ramazan.prayer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Şəkillər üçün məzmunla ünvanlanan fayl anbarı. Fayl adı məzmunun SHA-256 həş-idir və
+ * {@code <root>/ab/cd/abcd...} kimi iki səviyyəli qovluqlara paylanır, ona görə eyni şəkil bir dəfə saxlanılır
+ * və fayl yazıldıqdan sonra heç vaxt dəyişmir. Yazı müvəqqəti faylla aparılır, fayl fsync olunur və atomik
+ * köçürülür, ona görə qaytarılan həş-in faylı çöküşdən sonra da mövcuddur.
+ * <p>
+ * {@code image.store.root} davamlı qovluq olmalıdır (konteynerdə volume), əks halda yenidən qurulanda şəkillər itir.
+ */
+@Component
+public class ImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String TMP_DIR = ".tmp";
+
+    private final Path root;
+
+    public ImageStore(@Value("${image.store.root:uploads}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Axını diskə yazır və həş-i qaytarır. Axın yaddaşa tam oxunmur, həş yazı zamanı hesablanır.
+     */
+    public String store(InputStream in) throws IOException {
+        Path tmpDir = Files.createDirectories(root.resolve(TMP_DIR));
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                OutputStream out = new DigestOutputStream(Channels.newOutputStream(channel), digest);
+                in.transferTo(out);
+                out.flush();
+                // Həş DB-yə yazılmazdan əvvəl məzmun diskdə olmalıdır
+                channel.force(true);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                return hash;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException e) {
+                // Eyni məzmunu paralel sorğu artıq yazıb
+            }
+            syncDirectory(target.getParent());
+            return hash;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Fayl mövcuddur və məzmunu həşə uyğundur.
+     */
+    public boolean verify(String hash, long expectedLength) throws IOException {
+        Path path = path(hash);
+        if (!Files.isRegularFile(path) || Files.size(path) != expectedLength) return false;
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest()).equals(hash);
+    }
+
+    public Optional<Resource> find(String hash) {
+        if (hash == null || hash.isEmpty()) return Optional.empty();
+        Path path = path(hash);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    /**
+     * Şəkil cavabı. Gövdə {@link Resource}-dur: Spring faylı axınla yazır və {@code Range} başlığına
+     * 206 Partial Content ilə cavab verir, ETag həş olduğu üçün təkrar sorğulara 304 qaytarılır.
+     */
+    public ResponseEntity<Resource> response(String hash, String contentType) {
+        Optional<Resource> resource = find(hash);
+        if (resource.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType(contentType))
+                .eTag(hash)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
+                .body(resource.get());
+    }
+
+    /**
+     * Anbarın kökünə nisbətən yol, məsələn {@code ab/cd/abcd...}.
+     */
+    public String relativePath(String hash) {
+        return root.relativize(path(hash)).toString().replace('\\', '/');
+    }
+
+    private Path path(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Yanlış şəkil həş-i: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MediaType mediaType(String contentType) {
+        if (contentType == null || contentType.isBlank()) return MediaType.IMAGE_JPEG;
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.IMAGE_JPEG;
+        }
+    }
+
+    // Köçürmədən sonra qovluq girişi də diskə yazılmalıdır; bəzi platformalarda qovluq açıla bilmir
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Dəstəklənmir, fayl özü artıq sinxronlaşdırılıb
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.calculation.service.PrayerTimesCache;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.prayer.dto.PrayerBatchQuery;
+import com.example.ramazan.prayer.dto.PrayerBatchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Çoxlu (lat, lng, tarix) sorğusunu bir dəfəyə cavablayır. Keşin şəbəkəsinə görə eyni açara düşən
+ * sorğular bir dəfə hesablanır, unikal açarlar isə {@code prayerComputePool}-da paralel hesablanır.
+ * Cavabın ETag-i olmadığından əvvəlcədən qurulmuş taylar varsa interpolyasiya istifadə olunur.
+ */
+@Service
+@Slf4j
+public class PrayerBatchService {
+
+    private static final List<String> PRAYER_NAMES = Arrays.stream(Prayer.VALUES)
+            .map(Prayer::getDisplayName)
+            .toList();
+
+    private final PrayerTimesCache prayerTimesCache;
+    private final PrayerCalculationService prayerCalculationService;
+    private final ForkJoinPool prayerComputePool;
+    private final int maxSize;
+
+    public PrayerBatchService(PrayerTimesCache prayerTimesCache,
+                              PrayerCalculationService prayerCalculationService,
+                              ForkJoinPool prayerComputePool,
+                              @Value("${prayer.batch.max-size:5000}") int maxSize) {
+        this.prayerTimesCache = prayerTimesCache;
+        this.prayerCalculationService = prayerCalculationService;
+        this.prayerComputePool = prayerComputePool;
+        this.maxSize = maxSize;
+    }
+
+    public PrayerBatchResponse getTimes(List<PrayerBatchQuery> queries) {
+        if (queries == null || queries.isEmpty()) {
+            throw new IllegalArgumentException("Sorğu siyahısı boş ola bilməz");
+        }
+        if (queries.size() > maxSize) {
+            throw new IllegalArgumentException("Bir sorğuda " + maxSize + "-dən çox məkan ola bilməz");
+        }
+
+        LocalDate today = LocalDate.now(TimeConfig.zoneId);
+        int[] slots = new int[queries.size()];
+        Map<Key, Integer> slotByKey = new HashMap<>();
+        List<Key> uniques = new ArrayList<>();
+
+        for (int i = 0; i < queries.size(); i++) {
+            Key key = toKey(queries.get(i), i, today);
+            Integer slot = slotByKey.get(key);
+            if (slot == null) {
+                slot = uniques.size();
+                slotByKey.put(key, slot);
+                uniques.add(key);
+            }
+            slots[i] = slot;
+        }
+
+        // Paralel stream fork-join pool daxilindən çağırılanda həmin pool-un işçilərində işləyir
+        List<int[]> computed = prayerComputePool.submit(() -> uniques.parallelStream()
+                .map(key -> prayerCalculationService.interpolate(key.date(), key.lat(), key.lng(), key.tz(), key.method())
+                        .orElseGet(() -> prayerTimesCache.calculate(key.date(), key.lat(), key.lng(), key.tz(), key.method()))
+                        .times())
+                .toList()
+        ).join();
+
+        int[][] times = new int[queries.size()][];
+        for (int i = 0; i < slots.length; i++) {
+            times[i] = computed.get(slots[i]);
+        }
+
+        log.debug("Batch: {} sorğu, {} unikal açar", queries.size(), uniques.size());
+        return new PrayerBatchResponse(PRAYER_NAMES, times);
+    }
+
+    private Key toKey(PrayerBatchQuery query, int index, LocalDate today) {
+        if (query == null || query.lat() == null || query.lng() == null) {
+            throw new IllegalArgumentException("queries[" + index + "]: lat və lng mütləqdir");
+        }
+        if (Math.abs(query.lat()) > 90 || Math.abs(query.lng()) > 180) {
+            throw new IllegalArgumentException("queries[" + index + "]: koordinatlar düzgün deyil");
+        }
+
+        String dateStr = query.date();
+        LocalDate date = (dateStr == null || dateStr.isBlank() || "today".equalsIgnoreCase(dateStr))
+                ? today
+                : LocalDate.parse(dateStr);
+
+        return new Key(
+                date,
+                prayerTimesCache.snap(query.lat()),
+                prayerTimesCache.snap(query.lng()),
+                query.tz() == null ? 4.0 : query.tz(),
+                MethodProfiles.resolve(query.method()).getMethod().name()
+        );
+    }
+
+    private record Key(LocalDate date, double lat, double lng, double tz, String method) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.calculation.service.PrayerTimesSink;
+import com.example.ramazan.common.util.TimeText;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.enums.ExportFormat;
+import com.example.ramazan.location.dto.ResolvedCity;
+import com.example.ramazan.location.service.CityResolverService;
+import com.example.ramazan.prayer.dto.PrayerTimesResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Təqvimi CSV, iCalendar və ya NDJSON kimi birbaşa cavab axınına yazır. Sətirlər mühərrik
+ * hesabladıqca yazılır, yaddaşda siyahı qurulmur.
+ */
+@Service
+@Slf4j
+public class PrayerExportService {
+
+    public static final String ALL_CITIES = "all";
+
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final String CRLF = "\r\n";
+    // RFC 5545 §3.1: sətir CRLF-siz 75 oktetdən uzun olmamalıdır
+    private static final int ICS_LINE_OCTETS = 75;
+
+    private final PrayerCalculationService prayerCalculationService;
+    private final CityResolverService cityResolverService;
+    private final ObjectMapper objectMapper;
+    private final int maxDays;
+
+    public PrayerExportService(PrayerCalculationService prayerCalculationService,
+                               CityResolverService cityResolverService,
+                               ObjectMapper objectMapper,
+                               @Value("${prayer.export.max-days:3660}") int maxDays) {
+        this.prayerCalculationService = prayerCalculationService;
+        this.cityResolverService = cityResolverService;
+        this.objectMapper = objectMapper;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Parametrləri dərhal yoxlayır ki, səhvlər cavab axını başlamadan 400 kimi qayıtsın.
+     */
+    public StreamingResponseBody export(ExportFormat format,
+                                        Double lat,
+                                        Double lng,
+                                        String city,
+                                        String fromStr,
+                                        String toStr,
+                                        Double tz,
+                                        String method) {
+
+        LocalDate today = LocalDate.now(TimeConfig.zoneId);
+        LocalDate from = (fromStr == null || fromStr.isBlank()) ? today.withDayOfYear(1) : LocalDate.parse(fromStr);
+        LocalDate to = (toStr == null || toStr.isBlank()) ? from.withDayOfYear(from.lengthOfYear()) : LocalDate.parse(toStr);
+
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days <= 0) {
+            throw new IllegalArgumentException("Başlanğıc tarix son tarixdən sonra ola bilməz");
+        }
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Tarix aralığı " + maxDays + " gündən çox ola bilməz");
+        }
+
+        double usedTz = (tz == null) ? 4.0 : tz;
+        PrayerCalculationService.checkTz(usedTz);
+        String usedMethod = MethodProfiles.resolve(method).getMethod().name();
+        boolean allCities = lat == null && lng == null && ALL_CITIES.equalsIgnoreCase(city == null ? null : city.trim());
+        ResolvedCity resolved = allCities ? null : resolvedCity(lat, lng, city);
+
+        return out -> {
+            long started = System.nanoTime();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            PrayerTimesSink sink = switch (format) {
+                case CSV -> csv(writer, resolved);
+                case ICS -> ics(writer, resolved, usedTz, usedMethod);
+                case NDJSON -> ndjson(writer, resolved);
+            };
+
+            if (allCities) {
+                prayerCalculationService.streamRangeAllCities(from, to, usedTz, usedMethod, sink);
+            } else {
+                prayerCalculationService.streamRange(from, to, resolved.latitude(), resolved.longitude(),
+                        usedTz, usedMethod, sink);
+            }
+
+            if (format == ExportFormat.ICS) {
+                writer.write("END:VCALENDAR" + CRLF);
+            }
+            writer.flush();
+            log.debug("Export {} {}..{} {} ms", format, from, to, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+
+    private PrayerTimesSink csv(Writer writer, ResolvedCity resolved) throws IOException {
+        writer.write("city,date");
+        for (Prayer prayer : Prayer.VALUES) {
+            writer.write(',');
+            writer.write(csvField(prayer.getDisplayName()));
+        }
+        writer.write('\n');
+
+        return (date, location, times) -> {
+            writer.write(csvField(cityName(resolved, location)));
+            writer.write(',');
+            writer.write(date.toString());
+            for (int k = 0; k < Prayer.COUNT; k++) {
+                writer.write(',');
+                writer.write(TimeText.hhmmss(times[k]));
+            }
+            writer.write('\n');
+        };
+    }
+
+    private PrayerTimesSink ics(Writer writer, ResolvedCity resolved, double tz, String method) throws IOException {
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_UTC);
+        long tzSeconds = Math.round(tz * 3600);
+
+        writer.write("BEGIN:VCALENDAR" + CRLF);
+        writer.write("VERSION:2.0" + CRLF);
+        writer.write("PRODID:-//Ramazan//Prayer Times//AZ" + CRLF);
+        writer.write("CALSCALE:GREGORIAN" + CRLF);
+        icsLine(writer, "X-WR-CALNAME:" + icsText("Namaz vaxtları (" + method + ")"));
+
+        return (date, location, times) -> {
+            String cityName = icsText(cityName(resolved, location));
+            for (Prayer prayer : Prayer.VALUES) {
+                int second = times[prayer.ordinal()];
+                if (second < 0) continue;
+
+                // Vaxt yerli saatdır, DTSTART isə UTC ilə yazılır
+                LocalDateTime start = date.atStartOfDay().plusSeconds(second - tzSeconds);
+                writer.write("BEGIN:VEVENT" + CRLF);
+                icsLine(writer, "UID:" + date + "-" + prayer.getKey() + "-" + method + "-" + cityName + "@ramazan");
+                writer.write("DTSTAMP:" + stamp + CRLF);
+                writer.write("DTSTART:" + start.format(ICS_UTC) + CRLF);
+                icsLine(writer, "SUMMARY:" + icsText(prayer.getDisplayName()) + " — " + cityName);
+                writer.write("END:VEVENT" + CRLF);
+            }
+        };
+    }
+
+    private PrayerTimesSink ndjson(Writer writer, ResolvedCity resolved) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Generator hər sətirdən sonra yalnız öz buferini boşaltsın, cavab axını BufferedWriter-də yığılsın
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        // Kök dəyərlər arasında standart boşluq yazılmasın, sətirlər '\n' ilə ayrılır
+        generator.setRootValueSeparator(null);
+
+        return (date, location, times) -> {
+            objectMapper.writeValue(generator, new PrayerTimesResponse(cityName(resolved, location), date.toString(), times));
+            generator.flush();
+            writer.write('\n');
+        };
+    }
+
+    // Uzun sətir 75 oktetlik hissələrə bölünür, davam sətirləri boşluqla başlayır; UTF-8 simvolu bölünmür
+    private static void icsLine(Writer writer, String line) throws IOException {
+        if (line.length() * 3 <= ICS_LINE_OCTETS) {
+            writer.write(line);
+            writer.write(CRLF);
+            return;
+        }
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int chars = Character.charCount(codePoint);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > ICS_LINE_OCTETS) {
+                writer.write(CRLF);
+                writer.write(' ');
+                octets = 1;
+            }
+            writer.write(line, i, chars);
+            octets += size;
+            i += chars;
+        }
+        writer.write(CRLF);
+    }
+
+    // RFC 5545 §3.3.11 TEXT dəyəri
+    private static String icsText(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String escaped = switch (c) {
+                case '\\' -> "\\\\";
+                case ';' -> "\\;";
+                case ',' -> "\\,";
+                case '\n' -> "\\n";
+                case '\r' -> "";
+                default -> null;
+            };
+            if (escaped == null) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(text.length() + 8).append(text, 0, i);
+            sb.append(escaped);
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    // RFC 4180: vergül, dırnaq və ya sətir sonu olan sahə dırnağa alınır
+    private static String csvField(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    private String cityName(ResolvedCity resolved, int location) {
+        return resolved != null ? resolved.cityName() : AzerbaijanCities.CITIES.get(location).name();
+    }
+
+    private ResolvedCity resolvedCity(Double lat, Double lng, String city) {
+        if (lat != null && lng != null) {
+            return cityResolverService.resolveCityByCoords(lat, lng);
+        } else if (city != null && !city.isBlank()) {
+            return cityResolverService.resolveCityByName(city);
+        } else {
+            return cityResolverService.defaultCity();
+        }
+    }
+}
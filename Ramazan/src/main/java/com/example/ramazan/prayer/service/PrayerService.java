@@ -1,18 +1,34 @@
 package com.example.ramazan.prayer.service;
 
+import com.example.ramazan.calculation.RamadanDayCal;
 import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
 import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.calculation.service.PrayerTimesCache;
+import com.example.ramazan.common.util.TextNormalizeUtil;
 import com.example.ramazan.common.util.TimeUtil;
 import com.example.ramazan.config.TimeConfig;
 import com.example.ramazan.location.dto.ResolvedCity;
 import com.example.ramazan.location.service.CityResolverService;
+import com.example.ramazan.prayer.dto.PrayerCacheStatsResponse;
+import com.example.ramazan.prayer.dto.PrayerCalendarResponse;
 import com.example.ramazan.prayer.dto.PrayerTimesResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.*;
 import java.time.chrono.ChronoLocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +37,13 @@ public class PrayerService {
 
     private final CityResolverService cityResolverService;
     private final PrayerCalculationService prayerCalculationService;
+    private final RamadanDayCal ramadanDayCal;
+    private final PrecomputedPrayerTimes precomputedPrayerTimes;
+    private final PrayerTimesSnapshot prayerTimesSnapshot;
+    private final PrayerTimesCache prayerTimesCache;
+
+    @Value("${prayer.http.today-max-age:300}")
+    private long todayMaxAgeSeconds;
 
     public PrayerTimesResponse getTimes(Double lat,
                                         Double lng,
@@ -35,20 +58,149 @@ public class PrayerService {
 
         ResolvedCity resolved = resolvedCity(lat, lng, city);
 
-        PrayerTimesDto calc = prayerCalculationService.calculate(
-                requestDate,
+        PrayerTimesDto calc = calculate(resolved, lat == null || lng == null, requestDate, usedTz, method);
+
+        return new PrayerTimesResponse(
+                resolved.cityName(),
+                requestDate.toString(),
+                calc.times()
+        );
+    }
+
+
+    /**
+     * /times cavabı üçün ETag. Yalnız sorğunun normallaşdırılmış açarından və mühərrikin versiyasından
+     * qurulur, heç bir hesablama və ya şəhər axtarışı tələb etmir.
+     */
+    public String timesEtag(Double lat,
+                            Double lng,
+                            String city,
+                            String dateStr,
+                            Double tz,
+                            String method) {
+
+        LocalDate requestDate = parseDate(dateStr);
+        double usedTz = (tz == null) ? 4.0 : tz;
+
+        String location;
+        if (lat != null && lng != null) {
+            location = lat + "," + lng;
+        } else if (city != null && !city.isBlank()) {
+            location = TextNormalizeUtil.normalize(city);
+        } else {
+            location = cityResolverService.defaultCity().cityName();
+        }
+
+        String key = String.join("|",
+                PrayerTime.VERSION,
+                Double.toString(prayerTimesCache.getGridDeg()),
+                requestDate.toString(),
+                location,
+                Double.toString(usedTz),
+                MethodProfiles.resolve(method).getMethod().name());
+        return sha256(key).substring(0, 32);
+    }
+
+    /**
+     * Konkret tarix üçün cavab heç vaxt dəyişmir; "today" isə gecə yarısı başqa günə keçir.
+     */
+    public CacheControl timesCacheControl(String dateStr) {
+        if (dateStr == null || dateStr.isBlank() || "today".equalsIgnoreCase(dateStr)) {
+            ZonedDateTime now = ZonedDateTime.now(TimeConfig.zoneId);
+            long untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay(TimeConfig.zoneId))
+                    .getSeconds();
+            return CacheControl.maxAge(Duration.ofSeconds(Math.min(todayMaxAgeSeconds, untilMidnight))).cachePublic();
+        }
+        return CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    }
+
+
+    public List<PrayerTimesResponse> getAllCitiesTimes(String dateStr,
+                                                       Double tz,
+                                                       String method) {
+
+        LocalDate requestDate = parseDate(dateStr);
+
+        double usedTz = (tz == null) ? 4.0 : tz;
+
+        List<PrayerTimesDto> calcs = prayerCalculationService.calculateAllCities(requestDate, usedTz, method);
+
+        List<PrayerTimesResponse> responses = new ArrayList<>(calcs.size());
+        for (int i = 0; i < calcs.size(); i++) {
+            PrayerTimesDto calc = calcs.get(i);
+            responses.add(new PrayerTimesResponse(
+                    AzerbaijanCities.CITIES.get(i).name(),
+                    requestDate.toString(),
+                    calc.times()
+            ));
+        }
+        return responses;
+    }
+
+
+    public PrayerCalendarResponse getCalendar(Double lat,
+                                              Double lng,
+                                              String city,
+                                              String period,
+                                              Integer year,
+                                              Integer month,
+                                              Double tz,
+                                              String method) {
+
+        double usedTz = (tz == null) ? 4.0 : tz;
+
+        ResolvedCity resolved = resolvedCity(lat, lng, city);
+
+        LocalDate today = LocalDate.now(TimeConfig.zoneId);
+        int usedYear = (year == null) ? today.getYear() : year;
+
+        LocalDate from;
+        LocalDate to;
+        switch (period == null ? "month" : period.trim().toLowerCase()) {
+            case "month" -> {
+                int usedMonth = (month == null) ? today.getMonthValue() : month;
+                if (usedMonth < 1 || usedMonth > 12) {
+                    throw new IllegalArgumentException("month 1 ilə 12 arasında olmalıdır");
+                }
+                YearMonth yearMonth = YearMonth.of(usedYear, usedMonth);
+                from = yearMonth.atDay(1);
+                to = yearMonth.atEndOfMonth();
+            }
+            case "ramadan" -> {
+                from = ramadanDayCal.getRamadanStart();
+                to = ramadanDayCal.getRamadanEnd();
+            }
+            case "year" -> {
+                from = LocalDate.of(usedYear, 1, 1);
+                to = from.withDayOfYear(from.lengthOfYear());
+            }
+            default -> throw new IllegalArgumentException("Naməlum period: '" + period +
+                    "'. İcazə verilən dəyərlər: month, ramadan, year");
+        }
+
+        List<PrayerTimesDto> days = prayerCalculationService.calculateRange(
+                from,
+                to,
                 resolved.latitude(),
                 resolved.longitude(),
                 usedTz,
                 method
         );
 
-        return new PrayerTimesResponse(
+        List<PrayerTimesResponse> responses = days.stream()
+                .map(calc -> new PrayerTimesResponse(
+                        resolved.cityName(),
+                        calc.date().toString(),
+                        calc.times()
+                ))
+                .toList();
+
+        return new PrayerCalendarResponse(
                 resolved.cityName(),
-                requestDate.toString(),
-                calc.imsak(),
-                calc.iftar(),
-                calc.fullTimes()
+                from.toString(),
+                to.toString(),
+                days.get(0).method(),
+                responses
         );
     }
 
@@ -66,26 +218,58 @@ public class PrayerService {
 
         LocalDate today = LocalDate.now(TimeConfig.zoneId);
 
-        PrayerTimesDto calc = prayerCalculationService.calculate(
-                today,
-                resolved.latitude(),
-                resolved.longitude(),
-                usedTz,
-                method
-        );
+        PrayerTimesDto calc = calculate(resolved, lat == null || lng == null, today, usedTz, method);
 
-        LocalTime imsakTime = LocalTime.parse(calc.imsak().trim());
-        LocalTime iftarTime = LocalTime.parse(calc.iftar().trim());
+        if (calc.imsak() < 0 || calc.iftar() < 0) {
+            throw new IllegalArgumentException("Bu məkan üçün imsak və ya iftar vaxtı hesablanmır");
+        }
 
         return TimeUtil.remainingTodayFastingCountdown(
-                imsakTime,
-                iftarTime
+                calc.imsak(),
+                calc.iftar()
         );
     }
 
 
 
 
+    public PrayerCacheStatsResponse getCacheStats() {
+        var stats = prayerTimesCache.stats();
+        return new PrayerCacheStatsResponse(
+                prayerTimesCache.getGridDeg(),
+                prayerTimesCache.size(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+
+
+    // Şəhər adı ilə gələn sorğular snapshotdan və ya əvvəlcədən hesablanmış cədvəldən, qalanları keş üzərindən hesablanır
+    private PrayerTimesDto calculate(ResolvedCity resolved,
+                                     boolean byCityName,
+                                     LocalDate date,
+                                     double tz,
+                                     String method) {
+        if (byCityName && tz == PrecomputedPrayerTimes.STORED_TZ) {
+            var mapped = prayerTimesSnapshot.find(resolved.cityName(), method, date);
+            if (mapped.isPresent()) return mapped.get();
+
+            var stored = precomputedPrayerTimes.find(resolved.cityName(), method, date);
+            if (stored.isPresent()) return stored.get();
+        }
+
+        return prayerTimesCache.calculate(
+                date,
+                resolved.latitude(),
+                resolved.longitude(),
+                tz,
+                method
+        );
+    }
+
+
     private ResolvedCity resolvedCity(Double lat,Double lng,String city){
         if(lat!=null&&lng!=null){
             return cityResolverService.resolveCityByCoords(lat,lng);
@@ -97,6 +281,16 @@ public class PrayerService {
     }
 
 
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
     private LocalDate parseDate(String dateStr) {
         if (dateStr == null || dateStr.isBlank() || "today".equalsIgnoreCase(dateStr)) {
             return LocalDate.now(TimeConfig.zoneId);
@@ -0,0 +1,152 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.enums.CalculationMethod;
+import com.example.ramazan.model.PrayerTimes;
+import com.example.ramazan.repository.PrayerTimesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bütün şəhərlər və metodlar üçün qarşıdakı günlərin vaxtlarını hesablayıb prayer_times cədvəlinə
+ * yazır və {@link PrecomputedPrayerTimes} proyeksiyasını doldurur.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrayerTimesPrecomputeJob {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO prayer_times
+                (date, location_key, method, imsak, fajr, sunrise, dhuhr, asr, sunset, maghrib, isha, midnight,
+                 fingerprint)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                imsak = VALUES(imsak), fajr = VALUES(fajr), sunrise = VALUES(sunrise), dhuhr = VALUES(dhuhr),
+                asr = VALUES(asr), sunset = VALUES(sunset), maghrib = VALUES(maghrib), isha = VALUES(isha),
+                midnight = VALUES(midnight), fingerprint = VALUES(fingerprint)
+            """;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PrayerCalculationService prayerCalculationService;
+    private final PrayerTimesRepository prayerTimesRepository;
+    private final PrecomputedPrayerTimes precomputedPrayerTimes;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${prayer.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${prayer.precompute.days:60}")
+    private int days;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) return;
+
+        LocalDate from = LocalDate.now(TimeConfig.zoneId);
+        try {
+            // Başqa mühərrik versiyası ilə yazılmış sətirlər yüklənmir, aşağıda yenidən hesablanıb üzərinə yazılır
+            List<PrayerTimes> rows = prayerTimesRepository.findByDateBetweenAndFingerprint(
+                    from, from.plusDays(days - 1), PrayerTimesSnapshot.fingerprint());
+            rows.forEach(precomputedPrayerTimes::put);
+            log.info("prayer_times cədvəlindən {} sətir yükləndi", rows.size());
+        } catch (DataAccessException e) {
+            log.warn("prayer_times cədvəli oxunmadı, vaxtlar yenidən hesablanacaq: {}", e.getMessage());
+        }
+        precompute();
+    }
+
+    @Scheduled(cron = "${prayer.precompute.cron:0 30 2 * * *}", zone = "Asia/Baku")
+    public void refresh() {
+        if (!enabled) return;
+        precompute();
+    }
+
+    public synchronized void precompute() {
+        LocalDate from = LocalDate.now(TimeConfig.zoneId);
+        LocalDate to = from.plusDays(days - 1);
+        precomputedPrayerTimes.evictBefore(from);
+
+        int fingerprint = PrayerTimesSnapshot.fingerprint();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int computedDays = 0;
+        int written = 0;
+
+        for (CalculationMethod method : CalculationMethod.values()) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                // Yarımçıq qalmış iş bəzi şəhərləri yazmamış ola bilər, ona görə bütün şəhərlər yoxlanılır
+                if (precomputedPrayerTimes.isComplete(method.name(), date)) continue;
+
+                List<PrayerTimesDto> calcs = prayerCalculationService.calculateAllCities(
+                        date, PrecomputedPrayerTimes.STORED_TZ, method.name());
+                computedDays++;
+
+                for (int i = 0; i < calcs.size(); i++) {
+                    String city = AzerbaijanCities.CITIES.get(i).name();
+                    PrayerTimesDto calc = calcs.get(i);
+                    precomputedPrayerTimes.put(city, calc);
+                    batch.add(toRow(city, calc, fingerprint));
+
+                    if (batch.size() >= BATCH_SIZE) {
+                        written += flush(batch);
+                    }
+                }
+            }
+        }
+        written += flush(batch);
+
+        log.info("Namaz vaxtları əvvəlcədən hesablandı: {} gün/metod, {} sətir yazıldı, proyeksiyada {} qeyd",
+                computedDays, written, precomputedPrayerTimes.size());
+    }
+
+    private int flush(List<Object[]> batch) {
+        if (batch.isEmpty()) return 0;
+        int size = batch.size();
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        } catch (DataAccessException e) {
+            log.warn("prayer_times cədvəlinə yazmaq alınmadı: {}", e.getMessage());
+            size = 0;
+        }
+        batch.clear();
+        return size;
+    }
+
+    private Object[] toRow(String city, PrayerTimesDto calc, int fingerprint) {
+        Object[] row = new Object[4 + Prayer.COUNT];
+        row[0] = Date.valueOf(calc.date());
+        row[1] = city;
+        row[2] = calc.method();
+        for (Prayer prayer : Prayer.VALUES) {
+            row[3 + prayer.ordinal()] = toSqlTime(calc.time(prayer));
+        }
+        row[3 + Prayer.COUNT] = fingerprint;
+        return row;
+    }
+
+    private Time toSqlTime(int secondOfDay) {
+        if (secondOfDay < 0) return null;
+        return Time.valueOf(LocalTime.ofSecondOfDay(secondOfDay));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.common.util.TimeText;
+import com.example.ramazan.config.TimeConfig;
+import com.example.ramazan.enums.CalculationMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bütün şəhər və metodlar üçün təqvimin {@link FileChannel#map} ilə açılan binar snapshotu. Fayl başlanğıcda
+ * yaddaşa xəritələnir, sorğular isə birbaşa xəritələnmiş buferdən oxunur: heap-ə köçürmə və DB sorğusu yoxdur.
+ * Fayl yoxdursa, köhnədirsə və ya başqa mühərrik/şəhər siyahısı ilə yazılıbsa, tətbiq onu fonda yenidən yazır.
+ */
+@Component
+@Slf4j
+public class PrayerTimesSnapshot {
+
+    public static final int MAGIC = 0x524D5A53; // "RMZS"
+    public static final short FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 28;
+
+    private static final Map<String, Integer> CITY_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < AzerbaijanCities.CITIES.size(); i++) {
+            CITY_INDEX.put(AzerbaijanCities.CITIES.get(i).name(), i);
+        }
+    }
+
+    private final PrayerCalculationService prayerCalculationService;
+    private final boolean enabled;
+    private final Path path;
+    private final int days;
+    private final int minDaysAhead;
+
+    private volatile Mapping mapping;
+
+    public PrayerTimesSnapshot(PrayerCalculationService prayerCalculationService,
+                               @Value("${prayer.snapshot.enabled:true}") boolean enabled,
+                               @Value("${prayer.snapshot.path:data/prayer-times.snapshot}") String path,
+                               @Value("${prayer.snapshot.days:730}") int days,
+                               @Value("${prayer.snapshot.min-days-ahead:60}") int minDaysAhead) {
+        this.prayerCalculationService = prayerCalculationService;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.days = days;
+        this.minDaysAhead = minDaysAhead;
+        if (enabled) {
+            mapping = open(this.path);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refreshIfStale();
+    }
+
+    @Scheduled(cron = "${prayer.snapshot.cron:0 45 2 * * *}", zone = "Asia/Baku")
+    public synchronized void refreshIfStale() {
+        if (!enabled) return;
+
+        LocalDate today = LocalDate.now(TimeConfig.zoneId);
+        Mapping current = mapping;
+        if (current != null && current.covers(today) && current.covers(today.plusDays(minDaysAhead))) return;
+
+        LocalDate from = today.withDayOfYear(1);
+        long started = System.nanoTime();
+        try {
+            PrayerTimesSnapshotWriter.write(prayerCalculationService, path, from, days);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot {} yazılmadı: {}", path, e.getMessage());
+            return;
+        }
+        mapping = open(path);
+        log.info("Snapshot {} yazıldı: {}..{} {} ms", path, from, from.plusDays(days - 1),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public Optional<PrayerTimesDto> find(String city, String method, LocalDate date) {
+        Mapping m = mapping;
+        if (m == null) return Optional.empty();
+
+        Integer cityIndex = CITY_INDEX.get(city);
+        long day = date.toEpochDay() - m.firstEpochDay();
+        if (cityIndex == null || day < 0 || day >= m.days()) return Optional.empty();
+
+        CalculationMethod calculationMethod = MethodProfiles.resolve(method).getMethod();
+        int offset = HEADER_SIZE
+                + (((calculationMethod.ordinal() * CITY_INDEX.size() + cityIndex) * m.days() + (int) day) * Prayer.COUNT) * 2;
+
+        int[] times = new int[Prayer.COUNT];
+        for (int k = 0; k < Prayer.COUNT; k++) {
+            short minute = m.buffer().getShort(offset + k * 2);
+            times[k] = minute < 0 ? TimeText.MISSING : minute * 60;
+        }
+
+        AzerbaijanCities.City c = AzerbaijanCities.CITIES.get(cityIndex);
+        return Optional.of(new PrayerTimesDto(date, c.latitude(), c.longitude(), PrecomputedPrayerTimes.STORED_TZ,
+                calculationMethod.name(), times));
+    }
+
+    public boolean isLoaded() {
+        return mapping != null;
+    }
+
+    /**
+     * Mühərrik versiyası, metodlar və şəhər siyahısı dəyişəndə köhnə fayl etibarsız sayılır.
+     */
+    static int fingerprint() {
+        StringBuilder sb = new StringBuilder(PrayerTime.VERSION);
+        for (CalculationMethod method : CalculationMethod.values()) {
+            sb.append('|').append(method.name());
+        }
+        for (AzerbaijanCities.City city : AzerbaijanCities.CITIES) {
+            sb.append('|').append(city.name()).append(',').append(city.latitude()).append(',').append(city.longitude());
+        }
+        return sb.toString().hashCode();
+    }
+
+    private static Mapping open(Path path) {
+        if (!Files.isRegularFile(path)) return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Kanal bağlandıqdan sonra da xəritə etibarlı qalır
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE
+                    || buffer.getInt(0) != MAGIC
+                    || buffer.getShort(4) != FORMAT_VERSION
+                    || buffer.getShort(6) != Prayer.COUNT
+                    || buffer.getShort(8) != CalculationMethod.values().length
+                    || buffer.getShort(10) != AzerbaijanCities.CITIES.size()
+                    || buffer.getShort(12) != Math.round(PrecomputedPrayerTimes.STORED_TZ * 60)
+                    || buffer.getInt(24) != fingerprint()) {
+                log.info("Snapshot {} uyğun deyil, yenidən yazılacaq", path);
+                return null;
+            }
+
+            long firstEpochDay = buffer.getInt(16);
+            int days = buffer.getInt(20);
+            long expected = HEADER_SIZE
+                    + 2L * CalculationMethod.values().length * AzerbaijanCities.CITIES.size() * days * Prayer.COUNT;
+            if (days <= 0 || buffer.capacity() != expected) {
+                log.info("Snapshot {} ölçüsü uyğun deyil, yenidən yazılacaq", path);
+                return null;
+            }
+
+            log.info("Snapshot {} açıldı: {}..{}", path, LocalDate.ofEpochDay(firstEpochDay),
+                    LocalDate.ofEpochDay(firstEpochDay + days - 1));
+            return new Mapping(buffer, firstEpochDay, days);
+        } catch (IOException e) {
+            log.warn("Snapshot {} açılmadı: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private record Mapping(MappedByteBuffer buffer, long firstEpochDay, int days) {
+        boolean covers(LocalDate date) {
+            long day = date.toEpochDay() - firstEpochDay;
+            return day >= 0 && day < days;
+        }
+    }
+}
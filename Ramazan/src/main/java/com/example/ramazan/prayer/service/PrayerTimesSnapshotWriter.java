@@ -0,0 +1,114 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.calculation.engine.SolarEphemeris;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.calculation.service.PrayerTimeTiles;
+import com.example.ramazan.enums.CalculationMethod;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link PrayerTimesSnapshot} faylını yazır. Tətbiq daxilində və ya build zamanı ayrıca işə salına bilər:
+ * <pre>
+ * java -cp app.jar com.example.ramazan.prayer.service.PrayerTimesSnapshotWriter data/prayer-times.snapshot 2026-01-01 730
+ * </pre>
+ * Format: {@link PrayerTimesSnapshot#HEADER_SIZE} baytlıq başlıq, sonra
+ * {@code [metod][şəhər][gün][namaz]} sırası ilə 16-bitlik dəqiqə dəyərləri (-1 = hesablanmayıb).
+ */
+public final class PrayerTimesSnapshotWriter {
+
+    private PrayerTimesSnapshotWriter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("İstifadə: PrayerTimesSnapshotWriter <fayl> <yyyy-MM-dd> <gün sayı>");
+            System.exit(1);
+        }
+
+        LocalDate from = LocalDate.parse(args[1]);
+        int days = Integer.parseInt(args[2]);
+        PrayerTime engine = new PrayerTime(new SolarEphemeris(from.getYear() - 1, from.plusDays(days).getYear() + 1));
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            // Tayl interpolyasiyası söndürülür, snapshot dəqiq hesablanır
+            PrayerCalculationService service = new PrayerCalculationService(engine, pool,
+                    new PrayerTimeTiles(engine, false, 0.1, 1.0, 0));
+            write(service, Path.of(args[0]), from, days);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Faylı əvvəlcə müvəqqəti fayla yazır və sonra atomik olaraq əvəz edir, oxuyanlar yarımçıq fayl görmür.
+     */
+    public static void write(PrayerCalculationService service, Path path, LocalDate from, int days) throws IOException {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Gün sayı müsbət olmalıdır");
+        }
+        CalculationMethod[] methods = CalculationMethod.values();
+        int cities = AzerbaijanCities.CITIES.size();
+        LocalDate to = from.plusDays(days - 1);
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(PrayerTimesSnapshot.HEADER_SIZE);
+            header.putInt(PrayerTimesSnapshot.MAGIC);
+            header.putShort(PrayerTimesSnapshot.FORMAT_VERSION);
+            header.putShort((short) Prayer.COUNT);
+            header.putShort((short) methods.length);
+            header.putShort((short) cities);
+            header.putShort((short) Math.round(PrecomputedPrayerTimes.STORED_TZ * 60));
+            header.putShort((short) 0);
+            header.putInt((int) from.toEpochDay());
+            header.putInt(days);
+            header.putInt(PrayerTimesSnapshot.fingerprint());
+            header.flip();
+            channel.write(header);
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (CalculationMethod method : methods) {
+                // Fayl [şəhər][gün] sırasındadır, hesablama isə gün üzrə bütün şəhərlər üçündür
+                short[] block = new short[cities * days * Prayer.COUNT];
+                service.streamRangeAllCities(from, to, PrecomputedPrayerTimes.STORED_TZ, method.name(),
+                        (date, city, times) -> {
+                            int base = (city * days + (int) (date.toEpochDay() - from.toEpochDay())) * Prayer.COUNT;
+                            for (int k = 0; k < Prayer.COUNT; k++) {
+                                block[base + k] = (short) (times[k] < 0 ? -1 : times[k] / 60);
+                            }
+                        });
+
+                for (short value : block) {
+                    if (!buffer.hasRemaining()) {
+                        buffer.flip();
+                        channel.write(buffer);
+                        buffer.clear();
+                    }
+                    buffer.putShort(value);
+                }
+            }
+            buffer.flip();
+            channel.write(buffer);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.common.util.TimeText;
+import com.example.ramazan.model.PrayerTimes;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * prayer_times cədvəlinin yaddaşdakı proyeksiyası. Şəhər adı ilə gələn sorğular buradan cavablanır,
+ * cədvəl isə {@link PrayerTimesPrecomputeJob} tərəfindən doldurulur.
+ */
+@Component
+public class PrecomputedPrayerTimes {
+
+    // Cədvəl yalnız Azərbaycan vaxtı üçün doldurulur
+    public static final double STORED_TZ = 4.0;
+
+    private static final Map<String, AzerbaijanCities.City> CITIES_BY_NAME = AzerbaijanCities.CITIES.stream()
+            .collect(Collectors.toMap(AzerbaijanCities.City::name, Function.identity()));
+
+    private final Map<Key, PrayerTimesDto> entries = new ConcurrentHashMap<>();
+
+    public Optional<PrayerTimesDto> find(String city, String method, LocalDate date) {
+        String methodKey = MethodProfiles.resolve(method).getMethod().name();
+        return Optional.ofNullable(entries.get(new Key(city, methodKey, date)));
+    }
+
+    public boolean contains(String city, String method, LocalDate date) {
+        return entries.containsKey(new Key(city, method, date));
+    }
+
+    /**
+     * Verilmiş metod və gün üçün bütün şəhərlərin qeydi var.
+     */
+    public boolean isComplete(String method, LocalDate date) {
+        for (AzerbaijanCities.City city : AzerbaijanCities.CITIES) {
+            if (!contains(city.name(), method, date)) return false;
+        }
+        return true;
+    }
+
+    public void put(String city, PrayerTimesDto dto) {
+        entries.put(new Key(city, dto.method(), dto.date()), dto);
+    }
+
+    public void put(PrayerTimes row) {
+        AzerbaijanCities.City city = CITIES_BY_NAME.get(row.getLocationKey());
+        if (city == null) return;
+
+        int[] times = new int[Prayer.COUNT];
+        for (Prayer prayer : Prayer.VALUES) {
+            times[prayer.ordinal()] = secondOfDay(valueOf(row, prayer));
+        }
+
+        put(city.name(), new PrayerTimesDto(
+                row.getDate(),
+                city.latitude(),
+                city.longitude(),
+                STORED_TZ,
+                row.getMethod(),
+                times
+        ));
+    }
+
+    public void evictBefore(LocalDate date) {
+        entries.keySet().removeIf(key -> key.date().isBefore(date));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static LocalTime valueOf(PrayerTimes row, Prayer prayer) {
+        return switch (prayer) {
+            case IMSAK -> row.getImsak();
+            case FAJR -> row.getFajr();
+            case SUNRISE -> row.getSunrise();
+            case DHUHR -> row.getDhuhr();
+            case ASR -> row.getAsr();
+            case SUNSET -> row.getSunset();
+            case MAGHRIB -> row.getMaghrib();
+            case ISHA -> row.getIsha();
+            case MIDNIGHT -> row.getMidnight();
+        };
+    }
+
+    private static int secondOfDay(LocalTime time) {
+        return time == null ? TimeText.MISSING : time.toSecondOfDay();
+    }
+
+    private record Key(String city, String method, LocalDate date) {
+    }
+}
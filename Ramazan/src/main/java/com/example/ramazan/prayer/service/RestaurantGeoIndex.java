@@ -0,0 +1,392 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.common.util.GeoUtil;
+import com.example.ramazan.enums.NearbyStrategy;
+import com.example.ramazan.model.RestaurantSummary;
+import com.example.ramazan.prayer.event.RestaurantChangedEvent;
+import com.example.ramazan.prayer.event.RestaurantDeletedEvent;
+import com.example.ramazan.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restoranların yaddaşdakı tor (grid) indeksi. Başlanğıcda şəkilsiz proyeksiyadan qurulur, sonra
+ * {@link RestaurantService}-in yazma əməliyyatlarının hadisələri ilə yenilənir.
+ * <p>
+ * Oxuyanlar dəyişməz snapshot-la işləyir və heç vaxt kilidlənmir. Yazan tərəf yeni snapshot qurur:
+ * xanalar xəritəsinin səthi surəti və yalnız dəyişən xanaların yeni massivləri, sonra bir volatile yazı ilə dərc edir.
+ */
+@Component
+@Slf4j
+public class RestaurantGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // Ucuz hədd ilə dəqiq haversine arasındakı yuvarlaqlaşdırma fərqi üçün ehtiyat
+    private static final double EPSILON = 1e-9;
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final RestaurantRepository restaurantRepository;
+    private final double cellDeg;
+    private final NearbyStrategy strategy;
+
+    // Yalnız yazan tərəf üçün: id -> cari qeyd, köhnə xananı tapmaq üçün
+    private final Map<Integer, RestaurantSummary> byId = new HashMap<>();
+    // id -> tətbiq olunmuş ən son versiya; silinmiş restoranlar üçün DELETED (id-lər təkrar istifadə olunmur)
+    private final Map<Integer, Long> versions = new HashMap<>();
+    // Hadisələr yalnız yükləmə gedərkən saxlanılır; yükləmə yoxdursa sonrakı yükləmə onları DB-dən onsuz da oxuyur
+    private final List<Object> pending = new ArrayList<>();
+    private boolean loading;
+    private boolean loaded;
+
+    private volatile Snapshot snapshot;
+
+    public RestaurantGeoIndex(RestaurantRepository restaurantRepository,
+                              @Value("${restaurant.index.cell-deg:0.05}") double cellDeg,
+                              @Value("${restaurant.nearby.strategy:memory}") String strategy) {
+        if (!(cellDeg > 0)) {
+            throw new IllegalArgumentException("restaurant.index.cell-deg müsbət olmalıdır");
+        }
+        this.restaurantRepository = restaurantRepository;
+        this.cellDeg = cellDeg;
+        this.strategy = NearbyStrategy.fromString(strategy);
+    }
+
+    public NearbyStrategy strategy() {
+        return strategy;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (strategy != NearbyStrategy.MEMORY) {
+            log.info("Restoran indeksi qurulmur, restaurant.nearby.strategy = {}", strategy);
+            return;
+        }
+        synchronized (this) {
+            if (loading || loaded) return;
+            loading = true;
+        }
+        List<RestaurantSummary> all;
+        try {
+            all = restaurantRepository.findAllSummaries();
+        } catch (DataAccessException e) {
+            synchronized (this) {
+                loading = false;
+                pending.clear();
+            }
+            log.warn("Restoran indeksi qurulmadı, sorğular DB-yə gedəcək, sonra yenidən cəhd ediləcək: {}", e.getMessage());
+            return;
+        }
+        load(all);
+    }
+
+    @Scheduled(fixedDelayString = "${restaurant.index.retry-ms:60000}",
+            initialDelayString = "${restaurant.index.retry-ms:60000}")
+    public void retryLoad() {
+        if (strategy == NearbyStrategy.MEMORY && !isLoaded()) {
+            load();
+        }
+    }
+
+    /**
+     * Yükləmə zamanı gələn hadisələr saxlanılır və yükləmədən sonra tətbiq olunur; versiyası yüklənmiş
+     * qeydlərdən köhnə olanlar atılır.
+     */
+    public synchronized void load(List<RestaurantSummary> all) {
+        byId.clear();
+        versions.clear();
+        Map<Long, Point[]> cells = new HashMap<>();
+        Map<Long, List<Point>> grouped = new HashMap<>();
+        for (RestaurantSummary r : all) {
+            if (r.id() != null && r.version() != null) versions.put(r.id(), r.version());
+            if (!indexable(r)) continue;
+            byId.put(r.id(), r);
+            grouped.computeIfAbsent(key(r.latitude(), r.longitude()), k -> new ArrayList<>()).add(Point.of(r));
+        }
+        grouped.forEach((k, list) -> cells.put(k, list.toArray(Point[]::new)));
+        snapshot = new Snapshot(cells, byId.size());
+        loaded = true;
+        loading = false;
+
+        for (Object event : pending) {
+            if (event instanceof RestaurantChangedEvent changed) apply(changed.restaurant());
+            else if (event instanceof RestaurantDeletedEvent deleted) remove(deleted.id());
+        }
+        pending.clear();
+        log.info("Restoran indeksi quruldu: {} restoran, {} xana", byId.size(), cells.size());
+    }
+
+    @ApplicationModuleListener
+    public synchronized void on(RestaurantChangedEvent event) {
+        if (strategy != NearbyStrategy.MEMORY) return;
+        if (loaded) apply(event.restaurant());
+        else if (loading) pending.add(event);
+    }
+
+    @ApplicationModuleListener
+    public synchronized void on(RestaurantDeletedEvent event) {
+        if (strategy != NearbyStrategy.MEMORY) return;
+        if (loaded) remove(event.id());
+        else if (loading) pending.add(event);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public int size() {
+        Snapshot s = snapshot;
+        return s == null ? 0 : s.size();
+    }
+
+    /**
+     * Radius daxilindəki restoranları {@code top}-a ötürür və seçilmişləri (məsafə, id) sırası ilə qaytarır.
+     * Məsafələr {@code DistanceUtil.haversine} ilə bitbəbit eynidir.
+     */
+    public List<Hit> withinRadius(double lat, double lng, double radiusKm, TopHits top) {
+        Snapshot s = snapshot;
+        if (s == null || radiusKm < 0) return List.of();
+
+        double[] box = GeoUtil.boundingBox(lat, lng, radiusKm);
+        long minRow = cell(box[0]), maxRow = cell(box[1]);
+        long minCol = cell(box[2]), maxCol = cell(box[3]);
+        Query q = new Query(lat, lng, box);
+        double maxTerm = Math.pow(Math.sin(Math.min(Math.PI, radiusKm / EARTH_RADIUS_KM) / 2), 2) * (1 + EPSILON);
+
+        if ((maxRow - minRow + 1) * (maxCol - minCol + 1) > s.cells().size()) {
+            // Qutu çox böyükdürsə boş xanaları gəzmək əvəzinə mövcud xanalar süzülür
+            s.cells().forEach((k, cell) -> {
+                long row = k >> 32, col = (int) (long) k;
+                if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+                    collect(cell, q, maxTerm, radiusKm, top);
+                }
+            });
+        } else {
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long col = minCol; col <= maxCol; col++) {
+                    Point[] cell = s.cells().get(key(row, col));
+                    if (cell != null) collect(cell, q, maxTerm, radiusKm, top);
+                }
+            }
+        }
+        return top.sorted();
+    }
+
+    /**
+     * Ən yaxın k restoran. Xanalar halqa-halqa genişlənir; baxılmamış xanalar üçün məsafənin aşağı
+     * sərhədi tapılmış k-cı məsafədən böyük olanda axtarış dayanır. Namizədlər ucuz haversine həddi
+     * ilə sıralanır, dəqiq məsafə yalnız son k üçün hesablanır.
+     */
+    public List<Hit> nearest(double lat, double lng, int k) {
+        Snapshot s = snapshot;
+        if (s == null || k <= 0 || s.size() == 0) return List.of();
+        k = Math.min(k, s.size());
+
+        long row0 = cell(lat), col0 = cell(lng);
+        // Halqa sayı xanalardakı ən uzaq sətir/sütunla məhdudlaşır
+        long maxRing = Math.max(Math.max(Math.abs(s.maxRow() - row0), Math.abs(s.minRow() - row0)),
+                Math.max(Math.abs(s.maxCol() - col0), Math.abs(s.minCol() - col0)));
+        double cosMax = Math.cos(Math.toRadians(Math.min(90, Math.max(Math.abs(lat),
+                Math.max(Math.abs(s.minRow() * cellDeg), Math.abs((s.maxRow() + 1) * cellDeg))))));
+        Query q = new Query(lat, lng, null);
+
+        List<Candidate> candidates = new ArrayList<>();
+        int seen = 0;
+        for (long ring = 0; ring <= maxRing; ring++) {
+            if ((2 * ring + 1) * (2 * ring + 1) > 4L * s.cells().size()) {
+                // Nöqtə restoranlardan çox uzaqdadır, boş halqaları gəzmək əvəzinə hamısına baxılır
+                candidates.clear();
+                for (Point[] cell : s.cells().values()) {
+                    for (Point p : cell) candidates.add(new Candidate(p, q.term(p)));
+                }
+                break;
+            }
+            for (long row = row0 - ring; row <= row0 + ring; row++) {
+                boolean edgeRow = row == row0 - ring || row == row0 + ring;
+                for (long col = col0 - ring; col <= col0 + ring; col++) {
+                    if (!edgeRow && col != col0 - ring && col != col0 + ring) continue;
+                    Point[] cell = s.cells().get(key(row, col));
+                    if (cell == null) continue;
+                    seen += cell.length;
+                    for (Point p : cell) candidates.add(new Candidate(p, q.term(p)));
+                }
+            }
+
+            if (candidates.size() < k) continue;
+            double kthTerm = prune(candidates, k);
+            double kthKm = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(kthTerm)));
+            if (seen == s.size() || kthKm <= lowerBoundKm(lat, lng, row0, col0, ring, cosMax)) {
+                break;
+            }
+        }
+
+        prune(candidates, k);
+        List<Hit> hits = new ArrayList<>(candidates.size());
+        for (Candidate c : candidates) {
+            hits.add(new Hit(c.point().restaurant(), distanceKm(c.term())));
+        }
+        hits.sort(TopHits.ORDER);
+        return hits.size() > k ? new ArrayList<>(hits.subList(0, k)) : hits;
+    }
+
+    // k-cı ən kiçik həddən açıq-aşkar böyük olan namizədləri atır və həmin həddi qaytarır
+    private static double prune(List<Candidate> candidates, int k) {
+        candidates.sort(Comparator.comparingDouble(Candidate::term));
+        double kth = candidates.get(Math.min(k, candidates.size()) - 1).term();
+        double limit = kth * (1 + EPSILON) + Double.MIN_NORMAL;
+        int keep = k;
+        while (keep < candidates.size() && candidates.get(keep).term() <= limit) keep++;
+        if (keep < candidates.size()) candidates.subList(keep, candidates.size()).clear();
+        return kth;
+    }
+
+    private void apply(RestaurantSummary r) {
+        if (isStale(r)) return;
+        RestaurantSummary previous = byId.remove(r.id());
+        Map<Long, Point[]> cells = new HashMap<>(snapshot.cells());
+        if (previous != null) {
+            removeFrom(cells, previous);
+        }
+        if (indexable(r)) {
+            byId.put(r.id(), r);
+            long k = key(r.latitude(), r.longitude());
+            Point[] cell = cells.get(k);
+            Point[] next = cell == null ? new Point[1] : Arrays.copyOf(cell, cell.length + 1);
+            next[next.length - 1] = Point.of(r);
+            cells.put(k, next);
+        }
+        snapshot = new Snapshot(cells, byId.size());
+    }
+
+    private void remove(Integer id) {
+        versions.put(id, DELETED);
+        RestaurantSummary previous = byId.remove(id);
+        if (previous == null) return;
+        Map<Long, Point[]> cells = new HashMap<>(snapshot.cells());
+        removeFrom(cells, previous);
+        snapshot = new Snapshot(cells, byId.size());
+    }
+
+    private void removeFrom(Map<Long, Point[]> cells, RestaurantSummary r) {
+        long k = key(r.latitude(), r.longitude());
+        Point[] cell = cells.get(k);
+        if (cell == null) return;
+        Point[] next = Arrays.stream(cell)
+                .filter(p -> !p.restaurant().id().equals(r.id()))
+                .toArray(Point[]::new);
+        if (next.length == 0) cells.remove(k);
+        else cells.put(k, next);
+    }
+
+    // Əvvəl triqonometriyasız qutu yoxlaması, sonra haversine həddi; dəqiq məsafə yalnız keçənlər üçün
+    private static void collect(Point[] cell, Query q, double maxTerm, double radiusKm, TopHits top) {
+        for (Point p : cell) {
+            if (!q.inBox(p)) continue;
+            double term = q.term(p);
+            if (term > maxTerm) continue;
+            double distance = distanceKm(term);
+            if (distance <= radiusKm) top.offer(p.restaurant(), distance);
+        }
+    }
+
+    // DistanceUtil.haversine ilə eyni ifadə, kökaltı artıq hesablanıb
+    private static double distanceKm(double term) {
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(term), Math.sqrt(1 - term));
+    }
+
+    // Baxılmış (2·ring+1)² blokdan kənardakı istənilən nöqtəyə qədər məsafənin aşağı sərhədi
+    private double lowerBoundKm(double lat, double lng, long row0, long col0, long ring, double cosMax) {
+        double latGap = Math.min(lat - (row0 - ring) * cellDeg, (row0 + ring + 1) * cellDeg - lat);
+        double lngGap = Math.min(lng - (col0 - ring) * cellDeg, (col0 + ring + 1) * cellDeg - lng);
+        double byLat = EARTH_RADIUS_KM * Math.toRadians(Math.max(latGap, 0));
+        double byLng = lngGap >= 180
+                ? Double.POSITIVE_INFINITY
+                : 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, cosMax * Math.sin(Math.toRadians(Math.max(lngGap, 0)) / 2)));
+        return Math.min(byLat, byLng) * (1 - EPSILON);
+    }
+
+    // Versiyası artıq tətbiq olunmuşdan böyük olmayan hadisə köhnədir; versiyasız qeydlər həmişə tətbiq olunur
+    private boolean isStale(RestaurantSummary r) {
+        if (r.id() == null) return false;
+        Long known = versions.get(r.id());
+        if (known != null && known == DELETED) return true;
+        if (r.version() == null) return false;
+        if (known != null && r.version() <= known) return true;
+        versions.put(r.id(), r.version());
+        return false;
+    }
+
+    private static boolean indexable(RestaurantSummary r) {
+        return r.id() != null && r.latitude() != null && r.longitude() != null;
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellDeg);
+    }
+
+    private long key(double lat, double lng) {
+        return key(cell(lat), cell(lng));
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xffffffffL);
+    }
+
+    public record Hit(RestaurantSummary restaurant, double distanceKm) {
+    }
+
+    // Koordinatlar və enliyin kosinusu qutudan çıxarılmış formada saxlanılır
+    private record Point(RestaurantSummary restaurant, double latitude, double longitude, double cosLatitude) {
+        private static Point of(RestaurantSummary r) {
+            return new Point(r, r.latitude(), r.longitude(), Math.cos(Math.toRadians(r.latitude())));
+        }
+    }
+
+    private record Candidate(Point point, double term) {
+    }
+
+    private record Query(double latitude, double longitude, double cosLatitude, double[] box) {
+        private Query(double latitude, double longitude, double[] box) {
+            this(latitude, longitude, Math.cos(Math.toRadians(latitude)), box);
+        }
+
+        private boolean inBox(Point p) {
+            return p.latitude() >= box[0] && p.latitude() <= box[1]
+                    && p.longitude() >= box[2] && p.longitude() <= box[3];
+        }
+
+        // Haversine-in kökaltı ifadəsi: sin²(Δφ/2) + cosφ₁·cosφ₂·sin²(Δλ/2), məsafə ilə monoton artır.
+        // Hesablama sırası DistanceUtil.haversine ilə eynidir ki, məsafələr üst-üstə düşsün
+        private double term(Point p) {
+            double dLat = Math.toRadians(p.latitude() - latitude);
+            double dLng = Math.toRadians(p.longitude() - longitude);
+            return Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + cosLatitude * p.cosLatitude() * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        }
+    }
+
+    private record Snapshot(Map<Long, Point[]> cells, int size, long minRow, long maxRow, long minCol, long maxCol) {
+
+        private Snapshot(Map<Long, Point[]> cells, int size) {
+            this(cells, size,
+                    cells.keySet().stream().mapToLong(k -> k >> 32).min().orElse(0),
+                    cells.keySet().stream().mapToLong(k -> k >> 32).max().orElse(0),
+                    cells.keySet().stream().mapToLong(k -> (int) (long) k).min().orElse(0),
+                    cells.keySet().stream().mapToLong(k -> (int) (long) k).max().orElse(0));
+        }
+    }
+}
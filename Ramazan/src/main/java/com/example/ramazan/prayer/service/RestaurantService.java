@@ -1,20 +1,27 @@
 package com.example.ramazan.prayer.service;
 
 import com.example.ramazan.common.DistanceUtil;
+import com.example.ramazan.common.util.GeoUtil;
+import com.example.ramazan.enums.NearbyStrategy;
 import com.example.ramazan.exception.RestaurantNotFoundException;
 import com.example.ramazan.model.IftarMenu;
 import com.example.ramazan.model.Restaurant;
+import com.example.ramazan.model.RestaurantSummary;
 import com.example.ramazan.prayer.dto.RestaurantCreateDto;
 import com.example.ramazan.prayer.dto.RestaurantDto;
+import com.example.ramazan.prayer.event.RestaurantChangedEvent;
+import com.example.ramazan.prayer.event.RestaurantDeletedEvent;
 import com.example.ramazan.prayer.mapper.RestaurantMapper;
 import com.example.ramazan.repository.IftarMenuRepository;
 import com.example.ramazan.repository.RestaurantRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpHeaders;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,29 +31,146 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Comparator;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RestaurantService {
 
+    private static final int MAX_NEAREST = 100;
+    private static final int MAX_NEARBY = 200;
+    private static final double SPATIAL_MARGIN = 0.01;
+    private static final double NEAREST_START_RADIUS_KM = 2;
+    // Bu radiusda da limit qədər restoran yoxdursa bütün cədvəl bir sorğu ilə oxunur
+    private static final double NEAREST_MAX_RADIUS_KM = 64;
+
     private final RestaurantRepository restaurantRepository;
     private final RestaurantMapper restaurantMapper;
     private final IftarMenuRepository iftarMenuRepository;
+    private final RestaurantGeoIndex restaurantGeoIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageStore imageStore;
+    private final CoverImageMigration coverImageMigration;
+
+    /**
+     * Radius daxilindəki restoranlar (məsafə, id) sırası ilə, ən çox {@code limit} qədər. Növbəti səhifə üçün
+     * əvvəlki səhifənin son elementinin {@code distanceKm} və {@code id} dəyərləri kursor kimi ötürülür.
+     */
+    public List<RestaurantDto> nearBy(double lat, double lng, double radiusKm,
+                                      int limit, Double afterDistanceKm, Integer afterId) {
+        if (limit < 1 || limit > MAX_NEARBY) {
+            throw new IllegalArgumentException("limit 1 ilə " + MAX_NEARBY + " arasında olmalıdır");
+        }
+        if ((afterDistanceKm == null) != (afterId == null)) {
+            throw new IllegalArgumentException("Kursor üçün afterDistanceKm və afterId birlikdə verilməlidir");
+        }
+        TopHits top = afterDistanceKm == null
+                ? TopHits.first(limit)
+                : TopHits.after(limit, afterDistanceKm, afterId);
+
+        NearbyStrategy strategy = restaurantGeoIndex.strategy();
+        if (strategy == NearbyStrategy.MEMORY && restaurantGeoIndex.isLoaded()) {
+            return toDtos(restaurantGeoIndex.withinRadius(lat, lng, radiusKm, top));
+        }
+
+        // İndeks hazır olana qədər DB yalnız qutudakı namizədləri qaytarır, dəqiq radius süzgəci onların üzərində işləyir
+        collectWithin(strategy, lat, lng, radiusKm, top);
+        return toDtos(top.sorted());
+    }
+
+    // Radius daxilindəki namizədləri top-a ötürür və onların sayını qaytarır
+    private int collectWithin(NearbyStrategy strategy, double lat, double lng, double radiusKm, TopHits top) {
+        List<RestaurantSummary> candidates = strategy == NearbyStrategy.SPATIAL
+                ? findWithinSpatial(lat, lng, radiusKm)
+                : findInBox(lat, lng, radiusKm);
+        int within = 0;
+        for (RestaurantSummary r : candidates) {
+            double distance = DistanceUtil.haversine(lat, lng, r.latitude(), r.longitude());
+            if (distance <= radiusKm) {
+                top.offer(r, distance);
+                within++;
+            }
+        }
+        return within;
+    }
+
+    private List<RestaurantSummary> findInBox(double lat, double lng, double radiusKm) {
+        double[] box = GeoUtil.boundingBox(lat, lng, radiusKm);
+        return restaurantRepository.findSummariesInBox(box[0], box[1], box[2], box[3]);
+    }
 
-    public List<RestaurantDto> nearBy(double lat, double lng, double radiusKm) {
-        return restaurantRepository.findAll()
-                .stream()
-                .map(r -> new RestaurantDistance(r, DistanceUtil.haversine(lat, lng, r.getLatitude(), r.getLongitude())))
-                .filter(rd -> rd.distance <= radiusKm)
-                .sorted(Comparator.comparingDouble(rd -> rd.distance))
-                .map(rd -> restaurantMapper.fromEntityToDto(rd.restaurant))
+    // SPATIAL INDEX üzrə seçim. ST_Distance_Sphere ilə haversine arasındakı fərq üçün radius bir az genişləndirilir,
+    // son süzgəc yenə də DistanceUtil ilə aparılır ki, nəticə digər strategiyalarla eyni olsun
+    private List<RestaurantSummary> findWithinSpatial(double lat, double lng, double radiusKm) {
+        double searchKm = radiusKm * (1 + SPATIAL_MARGIN);
+        double[] box = GeoUtil.boundingBox(lat, lng, searchKm);
+        if (box[3] - box[2] >= 180) {
+            // Qütb, antimeridian və ya çox böyük radius: geodezik kənarlı zərf qurulmur, adi qutu sorğusu istifadə olunur
+            return findInBox(lat, lng, radiusKm);
+        }
+        List<Integer> ids = restaurantRepository.findIdsWithinSpatial(
+                envelope(box), lat, lng, searchKm * 1000);
+        return ids.isEmpty() ? List.of() : restaurantRepository.findSummariesByIdIn(ids);
+    }
+
+    // ST_GeomFromText(..., 4326) WKT-də oxların sırasını (enlik, uzunluq) kimi oxuyur
+    private static String envelope(double[] box) {
+        String minLat = wkt(box[0]), maxLat = wkt(box[1]), minLng = wkt(box[2]), maxLng = wkt(box[3]);
+        return "POLYGON((" + minLat + " " + minLng + ", " + maxLat + " " + minLng + ", "
+                + maxLat + " " + maxLng + ", " + minLat + " " + maxLng + ", " + minLat + " " + minLng + "))";
+    }
+
+    // Double.toString kiçik dəyərlər üçün eksponensial yazı verir (1.0E-4)
+    private static String wkt(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+
+    public List<RestaurantDto> nearest(double lat, double lng, int limit) {
+        if (limit < 1 || limit > MAX_NEAREST) {
+            throw new IllegalArgumentException("limit 1 ilə " + MAX_NEAREST + " arasında olmalıdır");
+        }
+        NearbyStrategy strategy = restaurantGeoIndex.strategy();
+        if (strategy == NearbyStrategy.MEMORY && restaurantGeoIndex.isLoaded()) {
+            return toDtos(restaurantGeoIndex.nearest(lat, lng, limit));
+        }
+
+        // İndeks yoxdur: radius limit qədər restoran tapılana qədər ikiqat artırılır. Radiusdan kənardakılar
+        // içəridəkilərdən uzaqdır, ona görə radiusda limit qədər nəticə varsa seçim dəqiqdir.
+        // Ən çox NEAREST_MAX_RADIUS_KM-ə qədər, sonra qutu sorğuları əvəzinə tam siyahı bir dəfə oxunur
+        for (double radiusKm = NEAREST_START_RADIUS_KM; radiusKm <= NEAREST_MAX_RADIUS_KM; radiusKm *= 2) {
+            TopHits top = TopHits.first(limit);
+            if (collectWithin(strategy, lat, lng, radiusKm, top) >= limit) {
+                return toDtos(top.sorted());
+            }
+        }
+
+        TopHits top = TopHits.first(limit);
+        for (RestaurantSummary r : restaurantRepository.findAllSummaries()) {
+            top.offer(r, DistanceUtil.haversine(lat, lng, r.latitude(), r.longitude()));
+        }
+        return toDtos(top.sorted());
+    }
+
+    /**
+     * spatial strategiyası location sütunu olmadan işləyə bilməz, ona görə tətbiq başlayanda yoxlanılır.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkSpatialSchema() {
+        if (restaurantGeoIndex.strategy() != NearbyStrategy.SPATIAL) return;
+        if (restaurantRepository.countLocationColumns() == 0) {
+            throw new IllegalStateException("restaurant.nearby.strategy=spatial üçün restaurants.location sütunu yoxdur: "
+                    + "003-restaurant-location miqrasiyası (MySQL 8) tətbiq olunmalıdır, məsələn "
+                    + "SPRING_LIQUIBASE_ENABLED=true və "
+                    + "SPRING_LIQUIBASE_CHANGE_LOG=classpath:db/changelog/003-restaurant-location.yaml ilə");
+        }
+    }
+
+    private List<RestaurantDto> toDtos(List<RestaurantGeoIndex.Hit> hits) {
+        return hits.stream()
+                .map(hit -> restaurantMapper.fromSummaryToDto(hit.restaurant(), hit.distanceKm()))
                 .toList();
     }
 
@@ -56,45 +180,37 @@ public class RestaurantService {
                 .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found")));
     }
 
-    private record RestaurantDistance(Restaurant restaurant, double distance) {
-    }
-
+    @Transactional
     public Restaurant create(RestaurantCreateDto restaurant) {
         Restaurant newRestaurant = restaurantMapper.toEntity(restaurant);
-        Restaurant saved = restaurantRepository.save(newRestaurant);
+        Restaurant saved = restaurantRepository.saveAndFlush(newRestaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RestaurantSummary.of(saved)));
         return saved;
     }
 
+    @Transactional
     public void delete(Integer id) {
         Restaurant restaurant = restaurantRepository.findById(id).orElseThrow(
                 () -> new RestaurantNotFoundException("Restaurant tapılmadı: id = " + id)
         );
         restaurantRepository.delete(restaurant);
+        eventPublisher.publishEvent(new RestaurantDeletedEvent(id));
     }
 
+    @Transactional
     public RestaurantDto update(Integer id, RestaurantCreateDto restaurantDetails) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RestaurantNotFoundException("Restaurant tapılmadı: id = " + id));
         restaurantMapper.updateEntity(restaurantDetails, restaurant);
-        Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        Restaurant updatedRestaurant = restaurantRepository.saveAndFlush(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RestaurantSummary.of(updatedRestaurant)));
         return restaurantMapper.fromEntityToDto(updatedRestaurant);
     }
 
     public String saveImage(MultipartFile file) throws IOException {
-
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-
-        Path uploadPath = Paths.get("uploads");
-
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        try (InputStream in = file.getInputStream()) {
+            return "/uploads/" + imageStore.relativePath(imageStore.store(in));
         }
-
-        Path filePath = uploadPath.resolve(fileName);
-
-        Files.copy(file.getInputStream(), filePath);
-
-        return "/uploads/" + fileName;
     }
 
     public List<IftarMenu> getMenus(Integer id) {
@@ -112,13 +228,15 @@ public class RestaurantService {
                 .toList();
     }
 
+    @Transactional
     public RestaurantDto changeRestaurantToPrompted(Integer id) {
        Restaurant restaurant=restaurantRepository.findById(id).orElseThrow(
                ()-> new RestaurantNotFoundException("Restoran tapılmadı")
        );
 
         restaurant.setHasAdvertisement(true);
-        Restaurant updated = restaurantRepository.save(restaurant);
+        Restaurant updated = restaurantRepository.saveAndFlush(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RestaurantSummary.of(updated)));
         return restaurantMapper.fromEntityToDto(updated);
 
     }
@@ -133,7 +251,8 @@ public class RestaurantService {
         }
 
         restaurant.setHasAdvertisement(false);
-        restaurantRepository.save(restaurant);
+        Restaurant updated = restaurantRepository.saveAndFlush(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(RestaurantSummary.of(updated)));
     }
 
 
@@ -149,8 +268,8 @@ public class RestaurantService {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restoran tapılmadı"));
 
-        try {
-            restaurant.setCoverImageUrl(file.getBytes());
+        try (InputStream in = file.getInputStream()) {
+            restaurant.setCoverImageHash(imageStore.store(in));
             restaurant.setCoverImageType(file.getContentType());
 
             restaurantRepository.save(restaurant);
@@ -158,29 +277,23 @@ public class RestaurantService {
             return ResponseEntity.ok("Şəkil uğurla yükləndi, ID: " + id);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Şəkil oxunmadı: " + e.getMessage());
+                    .body("Şəkil yazılmadı: " + e.getMessage());
         }
     }
 
 
 
-    public ResponseEntity<byte[]> getCoverImage(Integer id) {
+    public ResponseEntity<Resource> getCoverImage(Integer id) {
 
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restoran tapılmadı"));
 
-        byte[] imageBytes = restaurant.getCoverImageUrl();
-
-        if (imageBytes == null || imageBytes.length == 0) {
-            return ResponseEntity.notFound().build();
+        String hash = restaurant.getCoverImageHash();
+        if (imageStore.find(hash).isEmpty()) {
+            // Hələ köçürülməmiş şəkil köhnə blob sütunundan götürülür
+            hash = coverImageMigration.restoreFromBlob(CoverImageMigration.RESTAURANTS, id).orElse(hash);
         }
-
-        MediaType contentType = MediaType.IMAGE_JPEG;
-
-        return ResponseEntity.ok()
-                .contentType(contentType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
-                .body(imageBytes);
+        return imageStore.response(hash, restaurant.getCoverImageType());
     }
 
 }
@@ -0,0 +1,62 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.model.RestaurantSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Radius daxilindəki restoranlardan (məsafə, id) sırası ilə ilk {@code limit} qədərini seçir. Kursor verilibsə
+ * yalnız ondan sonra gələnlər nəzərə alınır. Ölçüsü {@code limit} ilə məhdud maksimum-yığın saxlanılır,
+ * ona görə n namizəd üçün xərc O(n log k)-dır və bütün siyahı sıralanmır.
+ */
+public final class TopHits {
+
+    static final Comparator<RestaurantGeoIndex.Hit> ORDER =
+            Comparator.comparingDouble(RestaurantGeoIndex.Hit::distanceKm).thenComparing(h -> h.restaurant().id());
+
+    private final int limit;
+    private final double afterDistanceKm;
+    private final int afterId;
+    // Ən uzaq seçilmiş nəticə başdadır
+    private final PriorityQueue<RestaurantGeoIndex.Hit> heap;
+
+    private TopHits(int limit, double afterDistanceKm, int afterId) {
+        this.limit = limit;
+        this.afterDistanceKm = afterDistanceKm;
+        this.afterId = afterId;
+        this.heap = new PriorityQueue<>(Math.min(limit, 64) + 1, ORDER.reversed());
+    }
+
+    public static TopHits first(int limit) {
+        return new TopHits(limit, Double.NEGATIVE_INFINITY, Integer.MIN_VALUE);
+    }
+
+    public static TopHits after(int limit, double distanceKm, int id) {
+        return new TopHits(limit, distanceKm, id);
+    }
+
+    public void offer(RestaurantSummary restaurant, double distanceKm) {
+        if (distanceKm < afterDistanceKm
+                || distanceKm == afterDistanceKm && restaurant.id() <= afterId) {
+            return;
+        }
+        if (heap.size() == limit) {
+            RestaurantGeoIndex.Hit worst = heap.peek();
+            if (distanceKm > worst.distanceKm()
+                    || distanceKm == worst.distanceKm() && restaurant.id() >= worst.restaurant().id()) {
+                return;
+            }
+            heap.poll();
+        }
+        heap.add(new RestaurantGeoIndex.Hit(restaurant, distanceKm));
+    }
+
+    public List<RestaurantGeoIndex.Hit> sorted() {
+        List<RestaurantGeoIndex.Hit> hits = new ArrayList<>(heap);
+        hits.sort(ORDER);
+        return hits;
+    }
+}
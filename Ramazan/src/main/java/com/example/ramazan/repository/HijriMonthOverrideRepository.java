@@ -0,0 +1,12 @@
+package com.example.ramazan.repository;
+
+import com.example.ramazan.model.HijriMonthOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HijriMonthOverrideRepository extends JpaRepository<HijriMonthOverride, Integer> {
+    Optional<HijriMonthOverride> findByHijriYearAndHijriMonth(Integer hijriYear, Integer hijriMonth);
+}
@@ -0,0 +1,14 @@
+package com.example.ramazan.repository;
+
+import com.example.ramazan.model.PrayerTimes;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PrayerTimesRepository extends JpaRepository<PrayerTimes, Integer> {
+
+    List<PrayerTimes> findByDateBetweenAndFingerprint(LocalDate from, LocalDate to, Integer fingerprint);
+}
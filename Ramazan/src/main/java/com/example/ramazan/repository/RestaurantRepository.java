@@ -1,10 +1,12 @@
 package com.example.ramazan.repository;
 
 import com.example.ramazan.model.Restaurant;
+import com.example.ramazan.model.RestaurantSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +14,49 @@ public interface RestaurantRepository extends JpaRepository<Restaurant,Integer>
 
     @Query("SELECT r FROM Restaurant r WHERE r.hasAdvertisement = true ORDER BY r.createdAt DESC")
     List<Restaurant> findByHasAdvertisementTrue();
+
+    // Şəkil sütunu oxunmur, qutu (latitude, longitude) kompozit indeksləri ilə daraldılır
+    @Query("""
+            SELECT new com.example.ramazan.model.RestaurantSummary(
+                r.id, r.name, r.email, r.link1, r.link2, r.link3, r.link4, r.link5,
+                r.address, r.city, r.latitude, r.longitude, r.phone, r.openTime, r.closeTime, r.createdAt, r.version)
+            FROM Restaurant r
+            WHERE r.latitude BETWEEN :minLat AND :maxLat
+              AND r.longitude BETWEEN :minLng AND :maxLng
+            """)
+    List<RestaurantSummary> findSummariesInBox(double minLat, double maxLat, double minLng, double maxLng);
+
+    @Query("""
+            SELECT new com.example.ramazan.model.RestaurantSummary(
+                r.id, r.name, r.email, r.link1, r.link2, r.link3, r.link4, r.link5,
+                r.address, r.city, r.latitude, r.longitude, r.phone, r.openTime, r.closeTime, r.createdAt, r.version)
+            FROM Restaurant r
+            """)
+    List<RestaurantSummary> findAllSummaries();
+
+    @Query("""
+            SELECT new com.example.ramazan.model.RestaurantSummary(
+                r.id, r.name, r.email, r.link1, r.link2, r.link3, r.link4, r.link5,
+                r.address, r.city, r.latitude, r.longitude, r.phone, r.openTime, r.closeTime, r.createdAt, r.version)
+            FROM Restaurant r
+            WHERE r.id IN :ids
+            """)
+    List<RestaurantSummary> findSummariesByIdIn(Collection<Integer> ids);
+
+    // 003-restaurant-location miqrasiyasındakı location sütunu (MySQL 8) tələb olunur.
+    // MBRContains idx_restaurants_location SPATIAL indeksindən istifadə edir, məsafə onun namizədləri üzərində yoxlanılır
+    @Query(value = """
+            SELECT r.id
+            FROM restaurants r
+            WHERE MBRContains(ST_GeomFromText(:envelope, 4326), r.location)
+              AND ST_Distance_Sphere(r.location, ST_SRID(POINT(:lng, :lat), 4326)) <= :radiusMeters
+            """, nativeQuery = true)
+    List<Integer> findIdsWithinSpatial(String envelope, double lat, double lng, double radiusMeters);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'restaurants' AND column_name = 'location'
+            """, nativeQuery = true)
+    long countLocationColumns();
 }
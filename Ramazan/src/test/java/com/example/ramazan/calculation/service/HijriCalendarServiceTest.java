@@ -0,0 +1,105 @@
+package com.example.ramazan.calculation.service;
+
+import com.example.ramazan.calculation.dto.HijriDate;
+import com.example.ramazan.repository.HijriMonthOverrideRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.chrono.HijrahDate;
+import java.time.temporal.ChronoField;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class HijriCalendarServiceTest {
+
+    private final HijriMonthOverrideRepository repository = mock(HijriMonthOverrideRepository.class);
+
+    @Test
+    void matchesHijrahChronologyAndRoundTripsEveryDay() {
+        HijriCalendarService service = new HijriCalendarService(repository, "");
+
+        for (LocalDate date = LocalDate.of(1900, 1, 1); date.getYear() <= 2150; date = date.plusDays(1)) {
+            HijrahDate expected = HijrahDate.from(date);
+            HijriDate actual = service.toHijri(date);
+
+            assertEquals(expected.get(ChronoField.YEAR), actual.year(), date::toString);
+            assertEquals(expected.get(ChronoField.MONTH_OF_YEAR), actual.month(), date::toString);
+            assertEquals(expected.get(ChronoField.DAY_OF_MONTH), actual.day(), date::toString);
+            assertEquals(expected.lengthOfMonth(), actual.monthLength(), date::toString);
+            assertEquals(date, service.toGregorian(actual.year(), actual.month(), actual.day()));
+        }
+    }
+
+    @Test
+    void overrideMovesMonthStartAndCanBeRemoved() {
+        HijriCalendarService service = new HijriCalendarService(repository, "");
+        int[] month = monthAfterShortMonth(service);
+        LocalDate baseStart = service.monthStart(month[0], month[1]);
+        LocalDate shifted = baseStart.plusDays(1);
+
+        HijriDate result = service.setOverride(month[0], month[1], shifted);
+
+        assertEquals(1, result.day());
+        assertEquals(month[1], result.month());
+        assertEquals(shifted, service.monthStart(month[0], month[1]));
+        assertEquals(30, service.toHijri(baseStart).monthLength());
+        verify(repository).save(any());
+
+        service.removeOverride(month[0], month[1]);
+        assertEquals(baseStart, service.monthStart(month[0], month[1]));
+    }
+
+    @Test
+    void rejectsOverrideThatMakesNeighbourMonthTooLong() {
+        HijriCalendarService service = new HijriCalendarService(repository, "");
+        LocalDate start = service.monthStart(1447, 9);
+
+        assertThrows(IllegalArgumentException.class, () -> service.setOverride(1447, 9, start.plusDays(2)));
+        assertThrows(IllegalArgumentException.class, () -> service.setOverride(1447, 9, start.minusDays(2)));
+
+        assertEquals(start, service.monthStart(1447, 9));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void rejectsOverrideOutsideTheTable() {
+        HijriCalendarService service = new HijriCalendarService(repository, "");
+
+        assertThrows(IllegalArgumentException.class, () -> service.setOverride(1299, 1, LocalDate.of(1882, 1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> service.setOverride(1447, 13, LocalDate.of(2026, 1, 1)));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void rejectsMalformedConfiguredOverrides() {
+        assertThrows(IllegalArgumentException.class, () -> new HijriCalendarService(repository, "1447-09"));
+        assertThrows(IllegalArgumentException.class, () -> new HijriCalendarService(repository, "1447=2026-02-19"));
+        assertThrows(IllegalArgumentException.class, () -> new HijriCalendarService(repository, "1447-09=2026-03-10"));
+    }
+
+    @Test
+    void rejectsDayOutsideMonth() {
+        HijriCalendarService service = new HijriCalendarService(repository, "");
+        int length = service.toHijri(service.monthStart(1447, 9)).monthLength();
+
+        assertThrows(IllegalArgumentException.class, () -> service.toGregorian(1447, 9, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.toGregorian(1447, 9, length + 1));
+    }
+
+    // Əvvəlki ayı 29, özü 30 gün olan ay: başlanğıcı bir gün sonraya çəkmək hər iki uzunluğu etibarlı saxlayır
+    private static int[] monthAfterShortMonth(HijriCalendarService service) {
+        for (int year = 1440; year < 1460; year++) {
+            for (int month = 2; month <= 12; month++) {
+                int previous = service.toHijri(service.monthStart(year, month - 1)).monthLength();
+                int current = service.toHijri(service.monthStart(year, month)).monthLength();
+                if (previous == 29 && current == 30) return new int[]{year, month};
+            }
+        }
+        throw new IllegalStateException("Uyğun ay tapılmadı");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ramazan.calculation.service;
+
+import com.example.ramazan.calculation.engine.MethodProfile;
+import com.example.ramazan.calculation.engine.MethodProfiles;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.engine.PrayerTime;
+import com.example.ramazan.enums.CalculationMethod;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrayerTimeTilesTest {
+
+    private static final double MAX_ERROR_SECONDS = 1.0;
+    private static final int SAMPLES = 2000;
+
+    private final PrayerTime engine = new PrayerTime();
+    private final PrayerTimeTiles tiles = new PrayerTimeTiles(engine, true, 0.1, MAX_ERROR_SECONDS, 0);
+
+    @Test
+    void offGridPointsStayWithinMaxError() {
+        Random random = new Random(42);
+        int usableTiles = 0;
+        int tilesTried = 0;
+
+        for (CalculationMethod method : CalculationMethod.values()) {
+            MethodProfile profile = MethodProfiles.get(method);
+            // Gündönümləri, bərabərliklər və təsadüfi günlər
+            LocalDate[] dates = {
+                    LocalDate.of(2026, 3, 20), LocalDate.of(2026, 6, 21),
+                    LocalDate.of(2026, 9, 23), LocalDate.of(2026, 12, 21),
+                    LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365))
+            };
+            for (LocalDate date : dates) {
+                tiles.refresh(date);
+                double[] lats = new double[SAMPLES];
+                double[] lngs = new double[SAMPLES];
+                for (int i = 0; i < SAMPLES; i++) {
+                    lats[i] = PrayerTimeTiles.MIN_LAT + random.nextDouble() * (PrayerTimeTiles.MAX_LAT - PrayerTimeTiles.MIN_LAT);
+                    lngs[i] = PrayerTimeTiles.MIN_LNG + random.nextDouble() * (PrayerTimeTiles.MAX_LNG - PrayerTimeTiles.MIN_LNG);
+                }
+                double[][] exact = new double[Prayer.COUNT][SAMPLES];
+                engine.computeBatch(profile, date, lats, lngs, 4.0, exact);
+
+                tilesTried++;
+                double[] times = new double[Prayer.COUNT];
+                boolean usable = tiles.interpolate(profile, date, lats[0], lngs[0], 4.0, times);
+                if (!usable) continue;
+                usableTiles++;
+
+                double maxError = 0;
+                for (int i = 0; i < SAMPLES; i++) {
+                    assertTrue(tiles.interpolate(profile, date, lats[i], lngs[i], 4.0, times));
+                    for (int k = 0; k < Prayer.COUNT; k++) {
+                        maxError = Math.max(maxError, Math.abs(times[k] - exact[k][i]) * 3600);
+                    }
+                }
+                double error = maxError;
+                assertTrue(error <= MAX_ERROR_SECONDS, () -> method + " " + date + ": xəta " + error + " san");
+            }
+        }
+
+        // Bütün taylar rədd olunsa yuxarıdakı yoxlama heç nəyi yoxlamamış olar
+        assertTrue(usableTiles * 2 >= tilesTried, "istifadə oluna bilən tayl azdır: " + usableTiles + "/" + tilesTried);
+    }
+
+    @Test
+    void tilesAreNeverBuiltOnRequest() {
+        LocalDate date = LocalDate.of(2026, 3, 1);
+        double[] times = new double[Prayer.COUNT];
+        assertFalse(tiles.interpolate(MethodProfiles.DEFAULT, date, 40.4, 49.8, 4.0, times));
+
+        tiles.refresh(date);
+        assertTrue(tiles.interpolate(MethodProfiles.DEFAULT, date, 40.4, 49.8, 4.0, times));
+        // Çoxluqdan kənar tarix və saat qurşağı dəqiq hesablamaya qalır
+        assertFalse(tiles.interpolate(MethodProfiles.DEFAULT, date.plusDays(1), 40.4, 49.8, 4.0, times));
+        assertFalse(tiles.interpolate(MethodProfiles.DEFAULT, date, 40.4, 49.8, 3.5, times));
+
+        // Yeni gün köhnə taylları çoxluqdan çıxarır
+        tiles.refresh(date.plusDays(1));
+        assertFalse(tiles.interpolate(MethodProfiles.DEFAULT, date, 40.4, 49.8, 4.0, times));
+        assertTrue(tiles.interpolate(MethodProfiles.DEFAULT, date.plusDays(1), 40.4, 49.8, 4.0, times));
+    }
+
+    @Test
+    void pointsOutsideBoundsAreNotInterpolated() {
+        tiles.refresh(LocalDate.of(2026, 3, 1));
+        double[] times = new double[Prayer.COUNT];
+        assertFalse(tiles.interpolate(MethodProfiles.DEFAULT, LocalDate.of(2026, 3, 1), 37.0, 47.0, 4.0, times));
+        assertFalse(tiles.interpolate(MethodProfiles.DEFAULT, LocalDate.of(2026, 3, 1), 40.0, 51.5, 4.0, times));
+    }
+}
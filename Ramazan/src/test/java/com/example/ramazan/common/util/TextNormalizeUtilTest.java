@@ -0,0 +1,64 @@
+package com.example.ramazan.common.util;
+
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TextNormalizeUtilTest {
+
+    @Test
+    void foldsAzerbaijaniLettersAndEnglishTransliteration() {
+        assertFolds("seki", "Şəki", "Sheki", "SHEKI", "Seki", "ŞƏKİ");
+        assertFolds("ismayilli", "İsmayıllı", "ISMAYILLI", "Ismayilli");
+        assertFolds("naxcivan", "Naxçıvan", "Nakhchivan", "NAKHCHIVAN", "Naxchivan");
+        assertFolds("goycay", "Göyçay", "Goychay", "GÖYÇAY");
+        assertFolds("agdam", "Ağdam", "Aghdam");
+        assertFolds("xacmaz", "Xaçmaz", "Khachmaz");
+        assertFolds("baki", "Bakı", "BAKI", "Baki");
+    }
+
+    @Test
+    void dropsCombiningMarksAndTrims() {
+        // Ayrılmış (NFD) yazı tərkibli simvollarla eyni açarı verir
+        assertEquals("seki", TextNormalizeUtil.normalize("S\u0327e\u0301ki"));
+        assertEquals("baki", TextNormalizeUtil.normalize("  Bakı\t\n"));
+        assertEquals("", TextNormalizeUtil.normalize("   "));
+        assertEquals("", TextNormalizeUtil.normalize(null));
+    }
+
+    @Test
+    void returnsInputWhenNothingChanges() {
+        String text = new String("unikal-acar-001");
+        assertSame(text, TextNormalizeUtil.normalize(text));
+    }
+
+    @Test
+    void repeatedInputIsServedFromCache() {
+        String first = TextNormalizeUtil.normalize(new String("Şamaxı"));
+        String second = TextNormalizeUtil.normalize(new String("Şamaxı"));
+        assertEquals("samaxi", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    void cityNamesFoldToDistinctKeys() {
+        Map<String, String> byKey = new HashMap<>();
+        for (AzerbaijanCities.City city : AzerbaijanCities.CITIES) {
+            String key = TextNormalizeUtil.normalize(city.name());
+            String previous = byKey.put(key, city.name());
+            assertNull(previous, () -> city.name() + " və " + previous + " eyni açar: " + key);
+        }
+    }
+
+    private static void assertFolds(String expected, String... inputs) {
+        for (String input : inputs) {
+            assertEquals(expected, TextNormalizeUtil.normalize(input), input);
+        }
+    }
+}
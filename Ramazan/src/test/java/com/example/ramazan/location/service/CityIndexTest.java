@@ -0,0 +1,93 @@
+package com.example.ramazan.location.service;
+
+import com.example.ramazan.calculation.model.AzerbaijanCities;
+import com.example.ramazan.common.util.GeoUtil;
+import com.example.ramazan.location.dto.NearestCity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CityIndexTest {
+
+    private static final List<AzerbaijanCities.City> CITIES = AzerbaijanCities.CITIES;
+
+    @Test
+    void matchesBruteForceHaversineEverywhere() {
+        Random random = new Random(11);
+        for (double cellDeg : new double[]{0.1, 0.25, 1.0}) {
+            CityIndex index = CityIndex.of(CITIES, cellDeg);
+            for (int q = 0; q < 5000; q++) {
+                double lat, lng;
+                switch (q % 3) {
+                    // Bütün yer kürəsi
+                    case 0 -> {
+                        lat = -90 + random.nextDouble() * 180;
+                        lng = -180 + random.nextDouble() * 360;
+                    }
+                    // Şəhərlərin düzbucaqlısı və ətrafı, dəqiq yoxlama sərhədi daxil
+                    case 1 -> {
+                        lat = 36 + random.nextDouble() * 8;
+                        lng = 42 + random.nextDouble() * 11;
+                    }
+                    // Uzaq bölgələr
+                    default -> {
+                        lat = 20 + random.nextDouble() * 50;
+                        lng = 20 + random.nextDouble() * 60;
+                    }
+                }
+                assertNearest(index, lat, lng, 1 + random.nextInt(CITIES.size() + 2));
+            }
+        }
+    }
+
+    @Test
+    void wrapsLongitudeAcrossAntimeridian() {
+        CityIndex index = CityIndex.of(CITIES, 0.1);
+        assertNearest(index, -40.49, -152.86, 1);
+        assertNearest(index, -40.49, -152.86, 5);
+        assertNearest(index, 0, 179.9, 3);
+        assertNearest(index, 0, -179.9, 3);
+        assertNearest(index, 89.9, 0, 3);
+        assertNearest(index, -89.9, 0, 3);
+    }
+
+    @Test
+    void cityCoordinatesReturnTheCityItself() {
+        CityIndex index = CityIndex.of(CITIES, 0.1);
+        for (AzerbaijanCities.City city : CITIES) {
+            NearestCity nearest = index.nearest(city.latitude(), city.longitude(), 1).get(0);
+            assertEquals(0, nearest.distanceKm(), 1e-9, city.name());
+        }
+    }
+
+    private static void assertNearest(CityIndex index, double lat, double lng, int k) {
+        List<NearestCity> expected = bruteForce(lat, lng, k);
+        List<NearestCity> actual = index.nearest(lat, lng, k);
+        String query = lat + "," + lng + " k=" + k;
+
+        assertEquals(expected.size(), actual.size(), query);
+        for (int j = 0; j < expected.size(); j++) {
+            assertEquals(expected.get(j).distanceKm(), actual.get(j).distanceKm(), 1e-9, query);
+            // Bərabər məsafəli şəhərlərin sırası fərqlənə bilər
+            boolean tie = (j > 0 && expected.get(j - 1).distanceKm() == expected.get(j).distanceKm())
+                    || (j + 1 < expected.size() && expected.get(j + 1).distanceKm() == expected.get(j).distanceKm());
+            assertTrue(tie || expected.get(j).cityName().equals(actual.get(j).cityName()), query);
+        }
+    }
+
+    private static List<NearestCity> bruteForce(double lat, double lng, int k) {
+        List<NearestCity> all = new ArrayList<>();
+        for (AzerbaijanCities.City city : CITIES) {
+            all.add(new NearestCity(city.name(), city.latitude(), city.longitude(),
+                    GeoUtil.haversineKm(lat, lng, city.latitude(), city.longitude())));
+        }
+        all.sort(Comparator.comparingDouble(NearestCity::distanceKm));
+        return all.subList(0, Math.min(k, all.size()));
+    }
+}
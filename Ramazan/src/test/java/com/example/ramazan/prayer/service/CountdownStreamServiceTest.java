@@ -0,0 +1,98 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.calculation.dto.PrayerTimesDto;
+import com.example.ramazan.calculation.engine.Prayer;
+import com.example.ramazan.calculation.service.PrayerCalculationService;
+import com.example.ramazan.location.service.CityResolverService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CountdownStreamServiceTest {
+
+    private final PrecomputedPrayerTimes precomputed = mock(PrecomputedPrayerTimes.class);
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final AtomicBoolean broken = new AtomicBoolean();
+    private CountdownStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        when(precomputed.find(anyString(), anyString(), any(LocalDate.class))).thenAnswer(invocation -> {
+            if (broken.get()) throw new IllegalStateException("DB əlçatan deyil");
+            int[] times = new int[Prayer.COUNT];
+            Arrays.fill(times, -1);
+            // Hər gün 23:59:59-da iftar, növbəti hadisə həmişə gələcəkdədir
+            times[Prayer.MAGHRIB.ordinal()] = 86_399;
+            return Optional.of(new PrayerTimesDto(invocation.getArgument(2), 40.4, 49.9, 4.0, "MWL", times));
+        });
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+        service = new CountdownStreamService(new CityResolverService(0.5), mock(PrayerCalculationService.class),
+                precomputed, scheduler, 60_000, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void failedTransitionIsRetriedAndRecovers() {
+        SseEmitter emitter = service.subscribe(null, null, null, "MWL");
+        assertEquals(1, scheduled.size());
+
+        broken.set(true);
+        runLast();
+        // Təkrar cəhd planlaşdırılıb
+        assertEquals(2, scheduled.size());
+
+        broken.set(false);
+        runLast();
+        assertEquals(3, scheduled.size());
+        assertDoesNotThrow(() -> emitter.send("ping"));
+    }
+
+    @Test
+    void timelineIsDroppedAfterRetriesAndSubscribersReconnect() {
+        SseEmitter emitter = service.subscribe(null, null, null, "MWL");
+        broken.set(true);
+        for (int attempt = 0; attempt < 7; attempt++) {
+            runLast();
+        }
+        // 6 təkrar cəhd, yeddinci uğursuzluqdan sonra yeni tapşırıq yoxdur
+        assertEquals(7, scheduled.size());
+        assertThrows(IllegalStateException.class, () -> emitter.send("ping"));
+
+        // Ölü zaman xəttinə qoşulmaq əvəzinə yenisi yaradılır
+        broken.set(false);
+        SseEmitter next = service.subscribe(null, null, null, "MWL");
+        assertEquals(8, scheduled.size());
+        assertDoesNotThrow(() -> next.send("ping"));
+    }
+
+    private void runLast() {
+        scheduled.get(scheduled.size() - 1).run();
+    }
+}
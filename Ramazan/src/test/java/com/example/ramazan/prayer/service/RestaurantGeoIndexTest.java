@@ -0,0 +1,161 @@
+package com.example.ramazan.prayer.service;
+
+import com.example.ramazan.common.DistanceUtil;
+import com.example.ramazan.model.RestaurantSummary;
+import com.example.ramazan.prayer.event.RestaurantChangedEvent;
+import com.example.ramazan.prayer.event.RestaurantDeletedEvent;
+import com.example.ramazan.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestaurantGeoIndexTest {
+
+    private static final Comparator<double[]> BY_DISTANCE_THEN_ID =
+            Comparator.<double[]>comparingDouble(e -> e[1]).thenComparingDouble(e -> e[0]);
+
+    @Test
+    void matchesBruteForceAcrossMixedOperations() {
+        Random random = new Random(42);
+        Map<Integer, RestaurantSummary> truth = new HashMap<>();
+        for (int id = 1; id <= 3000; id++) {
+            truth.put(id, restaurant(id, 1L, randomLat(random), randomLng(random)));
+        }
+        RestaurantGeoIndex index = new RestaurantGeoIndex(null, 0.05, "memory");
+        index.load(new ArrayList<>(truth.values()));
+        int nextId = truth.size() + 1;
+
+        for (int round = 0; round < 1500; round++) {
+            int op = random.nextInt(10);
+            if (op < 3) {
+                int id = 1 + random.nextInt(nextId - 1);
+                RestaurantSummary current = truth.get(id);
+                if (current == null) continue;
+                RestaurantSummary moved = restaurant(id, current.version() + 1, randomLat(random), randomLng(random));
+                truth.put(id, moved);
+                index.on(new RestaurantChangedEvent(moved));
+            } else if (op < 5) {
+                RestaurantSummary created = restaurant(nextId++, 0L, randomLat(random), randomLng(random));
+                truth.put(created.id(), created);
+                index.on(new RestaurantChangedEvent(created));
+            } else if (op < 6) {
+                int id = 1 + random.nextInt(nextId - 1);
+                truth.remove(id);
+                index.on(new RestaurantDeletedEvent(id));
+            } else {
+                double lat = randomLat(random), lng = randomLng(random);
+                assertRadius(truth, index, lat, lng, random.nextDouble() * 15);
+                assertNearest(truth, index, lat, lng, 1 + random.nextInt(50));
+            }
+        }
+        assertEquals(truth.size(), index.size());
+    }
+
+    @Test
+    void ignoresEventsOlderThanTheAppliedVersion() {
+        RestaurantGeoIndex index = new RestaurantGeoIndex(null, 0.05, "memory");
+        index.load(List.of(restaurant(1, 1L, 40.40, 49.87)));
+
+        index.on(new RestaurantChangedEvent(restaurant(1, 3L, 40.60, 49.60)));
+        index.on(new RestaurantChangedEvent(restaurant(1, 2L, 40.40, 49.87)));
+
+        List<RestaurantGeoIndex.Hit> hits = index.withinRadius(40.60, 49.60, 0.1, TopHits.first(10));
+        assertEquals(1, hits.size());
+        assertEquals(3L, hits.get(0).restaurant().version());
+    }
+
+    @Test
+    void lateChangeDoesNotResurrectDeletedRestaurant() {
+        RestaurantGeoIndex index = new RestaurantGeoIndex(null, 0.05, "memory");
+        index.load(List.of(restaurant(1, 1L, 40.40, 49.87)));
+
+        index.on(new RestaurantDeletedEvent(1));
+        index.on(new RestaurantChangedEvent(restaurant(1, 2L, 40.40, 49.87)));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void failedLoadDropsPendingEventsAndRetries() {
+        AtomicBoolean available = new AtomicBoolean(false);
+        List<RestaurantSummary> stored = List.of(restaurant(1, 1L, 40.40, 49.87));
+        RestaurantRepository repository = (RestaurantRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{RestaurantRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllSummaries")) {
+                        if (!available.get()) throw new DataAccessResourceFailureException("DB əlçatan deyil");
+                        return stored;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        RestaurantGeoIndex index = new RestaurantGeoIndex(repository, 0.05, "memory");
+
+        index.load();
+        assertFalse(index.isLoaded());
+        for (int id = 2; id < 1000; id++) {
+            index.on(new RestaurantChangedEvent(restaurant(id, 0L, 40.40, 49.87)));
+        }
+
+        available.set(true);
+        index.retryLoad();
+        assertTrue(index.isLoaded());
+        assertEquals(1, index.size());
+    }
+
+    private static void assertRadius(Map<Integer, RestaurantSummary> truth, RestaurantGeoIndex index,
+                                     double lat, double lng, double radiusKm) {
+        List<double[]> expected = new ArrayList<>();
+        for (RestaurantSummary r : truth.values()) {
+            double distance = DistanceUtil.haversine(lat, lng, r.latitude(), r.longitude());
+            if (distance <= radiusKm) expected.add(new double[]{r.id(), distance});
+        }
+        expected.sort(BY_DISTANCE_THEN_ID);
+
+        List<RestaurantGeoIndex.Hit> hits = index.withinRadius(lat, lng, radiusKm, TopHits.first(Integer.MAX_VALUE));
+        assertEquals(expected.size(), hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals((int) expected.get(i)[0], hits.get(i).restaurant().id());
+            assertEquals(expected.get(i)[1], hits.get(i).distanceKm());
+        }
+    }
+
+    private static void assertNearest(Map<Integer, RestaurantSummary> truth, RestaurantGeoIndex index,
+                                      double lat, double lng, int k) {
+        List<double[]> expected = new ArrayList<>();
+        for (RestaurantSummary r : truth.values()) {
+            expected.add(new double[]{r.id(), DistanceUtil.haversine(lat, lng, r.latitude(), r.longitude())});
+        }
+        expected.sort(BY_DISTANCE_THEN_ID);
+
+        List<RestaurantGeoIndex.Hit> hits = index.nearest(lat, lng, k);
+        assertEquals(Math.min(k, expected.size()), hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals((int) expected.get(i)[0], hits.get(i).restaurant().id());
+            assertEquals(expected.get(i)[1], hits.get(i).distanceKm());
+        }
+    }
+
+    private static double randomLat(Random random) {
+        return 40.40 + (random.nextDouble() - 0.5) * 0.9;
+    }
+
+    private static double randomLng(Random random) {
+        return 49.87 + (random.nextDouble() - 0.5) * 1.2;
+    }
+
+    private static RestaurantSummary restaurant(int id, Long version, double lat, double lng) {
+        return new RestaurantSummary(id, "Restoran " + id, null, null, null, null, null, null,
+                "Ünvan " + id, "Bakı", lat, lng, null, null, null, null, version);
+    }
+}